@@ -0,0 +1,243 @@
+// AccountLedger.java
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+
+// Account ledger with balances in long cents.
+// Accounts are guarded by a fixed set of lock stripes; a transfer locks both stripes
+// in ascending stripe order, so two opposite transfers can never deadlock.
+// When a journal is attached, every operation is acknowledged only after group commit;
+// once a journal write fails, the ledger rejects every further change.
+class AccountLedger implements AutoCloseable {
+    private static final int STRIPES = 1024;
+    private static final CompletableFuture<Boolean> REJECTED = CompletableFuture.completedFuture(false);
+
+    static final class Account {
+        final int id;
+        final String name;
+        volatile long balanceCents; // written only while holding the account's stripe
+
+        Account(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final ConcurrentHashMap<String, Account> accountsByName = new ConcurrentHashMap<>();
+    private final List<Account> accountsById = new ArrayList<>();
+    private final LedgerJournal journal;
+
+    // In-memory ledger without durability
+    public AccountLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.journal = null;
+    }
+
+    // Durable ledger: replays the journal if it exists, then appends to it
+    public AccountLedger(Path journalFile) throws IOException {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        long validLength = LedgerJournal.replay(journalFile, new LedgerJournal.Replay() {
+            @Override
+            public void open(int accountId, String name) {
+                Account account = new Account(accountId, name);
+                accountsById.add(account);
+                accountsByName.put(name, account);
+            }
+
+            @Override
+            public void apply(byte type, int from, int to, long amountCents) {
+                switch (type) {
+                    case LedgerJournal.DEPOSIT:
+                        accountsById.get(from).balanceCents += amountCents;
+                        break;
+                    case LedgerJournal.WITHDRAW:
+                        accountsById.get(from).balanceCents -= amountCents;
+                        break;
+                    case LedgerJournal.TRANSFER:
+                        accountsById.get(from).balanceCents -= amountCents;
+                        accountsById.get(to).balanceCents += amountCents;
+                        break;
+                    default:
+                        throw new IllegalStateException("Corrupt ledger journal record type: " + type);
+                }
+            }
+        });
+        this.journal = new LedgerJournal(journalFile, validLength);
+    }
+
+    // Open an account with an initial balance, or return the existing one
+    public Account openAccount(String name, long initialCents) {
+        Account account;
+        synchronized (accountsById) {
+            account = accountsByName.get(name);
+            if (account != null) {
+                return account;
+            }
+            checkWritable();
+            account = new Account(accountsById.size(), name);
+            accountsById.add(account);
+            if (journal != null) {
+                journal.appendOpen(account.id, name);
+            }
+            accountsByName.put(name, account);
+        }
+        if (initialCents > 0) {
+            deposit(account, initialCents);
+        }
+        return account;
+    }
+
+    public Account getAccount(String name) {
+        return accountsByName.get(name);
+    }
+
+    public long balance(Account account) {
+        return account.balanceCents;
+    }
+
+    public boolean deposit(Account account, long amountCents) {
+        return await(depositAsync(account, amountCents));
+    }
+
+    public boolean withdraw(Account account, long amountCents) {
+        return await(withdrawAsync(account, amountCents));
+    }
+
+    public boolean transfer(Account from, Account to, long amountCents) {
+        return await(transferAsync(from, to, amountCents));
+    }
+
+    // The async variants apply the change immediately and complete once it is durable
+    public CompletableFuture<Boolean> depositAsync(Account account, long amountCents) {
+        checkAmount(amountCents);
+        CompletableFuture<Void> durable;
+        synchronized (stripeOf(account)) {
+            checkWritable();
+            account.balanceCents += amountCents;
+            durable = log(LedgerJournal.DEPOSIT, account.id, account.id, amountCents);
+        }
+        return accepted(durable);
+    }
+
+    public CompletableFuture<Boolean> withdrawAsync(Account account, long amountCents) {
+        checkAmount(amountCents);
+        CompletableFuture<Void> durable;
+        synchronized (stripeOf(account)) {
+            checkWritable();
+            if (account.balanceCents < amountCents) {
+                return REJECTED;
+            }
+            account.balanceCents -= amountCents;
+            durable = log(LedgerJournal.WITHDRAW, account.id, account.id, amountCents);
+        }
+        return accepted(durable);
+    }
+
+    public CompletableFuture<Boolean> transferAsync(Account from, Account to, long amountCents) {
+        checkAmount(amountCents);
+        if (from == to) {
+            return REJECTED;
+        }
+        int a = stripeIndex(from);
+        int b = stripeIndex(to);
+        // Fixed lock order: lower stripe index first
+        Object first = stripes[Math.min(a, b)];
+        Object second = stripes[Math.max(a, b)];
+        CompletableFuture<Void> durable;
+        synchronized (first) {
+            synchronized (second) {
+                checkWritable();
+                if (from.balanceCents < amountCents) {
+                    return REJECTED;
+                }
+                from.balanceCents -= amountCents;
+                to.balanceCents += amountCents;
+                durable = log(LedgerJournal.TRANSFER, from.id, to.id, amountCents);
+            }
+        }
+        return accepted(durable);
+    }
+
+    // Sum of all balances taken while holding every stripe (in order), i.e. a consistent snapshot
+    public long auditTotal() {
+        return auditTotal(0);
+    }
+
+    private long auditTotal(int stripe) {
+        if (stripe == STRIPES) {
+            long total = 0;
+            synchronized (accountsById) {
+                for (Account account : accountsById) {
+                    total += account.balanceCents;
+                }
+            }
+            return total;
+        }
+        synchronized (stripes[stripe]) {
+            return auditTotal(stripe + 1);
+        }
+    }
+
+    public List<Account> accounts() {
+        synchronized (accountsById) {
+            return new ArrayList<>(accountsById);
+        }
+    }
+
+    public long getGroupCommits() {
+        return journal == null ? 0 : journal.getGroupCommits();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void checkWritable() {
+        if (journal != null) {
+            journal.checkWritable();
+        }
+    }
+
+    private CompletableFuture<Void> log(byte type, int from, int to, long amountCents) {
+        // Appended while the stripe lock is held, so the journal order matches the apply order per account
+        return journal == null ? null : journal.append(type, from, to, amountCents);
+    }
+
+    private static CompletableFuture<Boolean> accepted(CompletableFuture<Void> durable) {
+        return durable == null ? CompletableFuture.completedFuture(true) : durable.thenApply(v -> true);
+    }
+
+    private static boolean await(CompletableFuture<Boolean> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Ledger journal write failed", e.getCause());
+        }
+    }
+
+    private static void checkAmount(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amountCents);
+        }
+    }
+
+    private Object stripeOf(Account account) {
+        return stripes[stripeIndex(account)];
+    }
+
+    private static int stripeIndex(Account account) {
+        return account.id & (STRIPES - 1);
+    }
+}
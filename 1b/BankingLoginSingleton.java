@@ -1,57 +1,91 @@
 // BankingLoginSingleton.java
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 class BankingLoginSingleton {
 
-    // Private static instance of the class, initially null
-    private static BankingLoginSingleton instance;
+    // Session store: one token per logged-in user instead of a single global flag
+    private final SessionStore sessions = new SessionStore(15, TimeUnit.MINUTES);
+
+    // Salted PBKDF2 credential checks on a bounded worker pool
+    private final CredentialVerifier verifier = new CredentialVerifier(new InMemoryCredentialStore(),
+            Runtime.getRuntime().availableProcessors(), 1024, 1, TimeUnit.MINUTES);
 
-    // Private variable to store the login state
-    private boolean isLoggedIn = false;
+    // Account balances; durable when started with -Dbank.journal=<file>
+    private final AccountLedger ledger = createLedger();
 
     // Private constructor to prevent instantiation from other classes
     private BankingLoginSingleton() {
+        verifier.register("user", "pass");
+        ledger.openAccount("user", 1000_00);
     }
 
-    // Public method to provide access to the single instance
-    public static synchronized BankingLoginSingleton getInstance() {
-        if (instance == null) {
-            instance = new BankingLoginSingleton();
+    private static AccountLedger createLedger() {
+        String journal = System.getProperty("bank.journal");
+        if (journal == null) {
+            return new AccountLedger();
         }
-        return instance;
+        try {
+            return new AccountLedger(Paths.get(journal));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open ledger journal " + journal, e);
+        }
+    }
+
+    // Holder class: the instance is created once by the class loader, so getInstance() needs no lock
+    private static class Holder {
+        private static final BankingLoginSingleton INSTANCE = new BankingLoginSingleton();
     }
 
-    // Method to log in the user
-    public void login(String username, String password) {
-        if (username.equals("user") && password.equals("pass")) {
-            isLoggedIn = true;
+    // Public method to provide access to the single instance
+    public static BankingLoginSingleton getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Method to log in the user; returns a session token, or null on failure
+    public String login(String username, String password) {
+        if (verifier.verify(username, password)) {
             System.out.println("Login successful!");
+            return sessions.create(username);
         } else {
             System.out.println("Invalid credentials!");
+            return null;
         }
     }
 
     // Method to log out the user
-    public void logout() {
-        isLoggedIn = false;
+    public void logout(String token) {
+        sessions.invalidate(token);
         System.out.println("Logged out successfully!");
     }
 
-    // Method to check the login state
-    public boolean checkLogin() {
-        return isLoggedIn;
+    // Method to access credential verification metrics (queue depth, latency)
+    public CredentialVerifier getVerifier() {
+        return verifier;
+    }
+
+    // Method to check the login state of a session
+    public boolean checkLogin(String token) {
+        return sessions.validate(token) != null;
     }
 
     // Method to view balance
-    public void viewBalance() {
-        if (isLoggedIn) {
-            System.out.println("Your balance is $1000.");
+    public void viewBalance(String token) {
+        AccountLedger.Account account = accountFor(token);
+        if (account != null) {
+            System.out.println("Your balance is $" + formatCents(ledger.balance(account)) + ".");
         } else {
             System.out.println("Please log in to view your balance.");
         }
     }
 
     // Method to deposit money
-    public void deposit(int amount) {
-        if (isLoggedIn) {
+    public void deposit(String token, int amount) {
+        AccountLedger.Account account = accountFor(token);
+        if (account != null) {
+            ledger.deposit(account, amount * 100L);
             System.out.println("Deposited $" + amount + " successfully.");
         } else {
             System.out.println("Please log in to deposit money.");
@@ -59,34 +93,62 @@ class BankingLoginSingleton {
     }
 
     // Method to withdraw money
-    public void withdraw(int amount) {
-        if (isLoggedIn) {
+    public void withdraw(String token, int amount) {
+        AccountLedger.Account account = accountFor(token);
+        if (account == null) {
+            System.out.println("Please log in to withdraw money.");
+        } else if (ledger.withdraw(account, amount * 100L)) {
             System.out.println("Withdrew $" + amount + " successfully.");
         } else {
-            System.out.println("Please log in to withdraw money.");
+            System.out.println("Insufficient funds.");
+        }
+    }
+
+    // Method to transfer money to another account
+    public void transfer(String token, String toUser, int amount) {
+        AccountLedger.Account account = accountFor(token);
+        AccountLedger.Account target = ledger.getAccount(toUser);
+        if (account == null) {
+            System.out.println("Please log in to transfer money.");
+        } else if (target == null) {
+            System.out.println("Unknown account: " + toUser);
+        } else if (ledger.transfer(account, target, amount * 100L)) {
+            System.out.println("Transferred $" + amount + " to " + toUser + " successfully.");
+        } else {
+            System.out.println("Transfer failed.");
         }
     }
 
+    // Method to look up the account of a logged-in session
+    private AccountLedger.Account accountFor(String token) {
+        String username = sessions.validate(token);
+        return username == null ? null : ledger.getAccount(username);
+    }
+
+    private static String formatCents(long cents) {
+        return String.format("%d.%02d", cents / 100, cents % 100);
+    }
+
     // Main method to demonstrate the Singleton Banking Login system
     public static void main(String[] args) {
         // Getting the single instance of BankingLoginSingleton
         BankingLoginSingleton bankingLogin = BankingLoginSingleton.getInstance();
 
         // Trying to view balance before logging in
-        bankingLogin.viewBalance();
+        bankingLogin.viewBalance(null);
 
         // Logging in with correct credentials
-        bankingLogin.login("user", "pass");
+        String token = bankingLogin.login("user", "pass");
 
         // Performing banking operations
-        bankingLogin.viewBalance();
-        bankingLogin.deposit(500);
-        bankingLogin.withdraw(300);
+        bankingLogin.viewBalance(token);
+        bankingLogin.deposit(token, 500);
+        bankingLogin.withdraw(token, 300);
 
         // Logging out
-        bankingLogin.logout();
+        bankingLogin.logout(token);
 
         // Trying to perform an operation after logging out
-        bankingLogin.viewBalance();
+        bankingLogin.viewBalance(token);
     }
 }
\ No newline at end of file
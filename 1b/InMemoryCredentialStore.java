@@ -0,0 +1,17 @@
+// InMemoryCredentialStore.java
+import java.util.concurrent.ConcurrentHashMap;
+
+// Credential store kept in a concurrent map (stand-in for a database-backed store)
+class InMemoryCredentialStore implements CredentialStore {
+    private final ConcurrentHashMap<String, StoredCredential> credentials = new ConcurrentHashMap<>();
+
+    @Override
+    public StoredCredential find(String username) {
+        return credentials.get(username);
+    }
+
+    @Override
+    public void save(String username, StoredCredential credential) {
+        credentials.put(username, credential);
+    }
+}
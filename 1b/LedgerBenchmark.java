@@ -0,0 +1,131 @@
+// LedgerBenchmark.java
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrent transfer benchmark for AccountLedger with a consistency checker.
+// Transfers never create or destroy money, so an audit must always see the initial total,
+// no balance may go negative, and replaying the journal must reproduce the final balances.
+// Usage: java LedgerBenchmark [threads] [seconds] [accounts] [inFlightPerThread]
+public class LedgerBenchmark {
+    private static final long INITIAL_CENTS = 1_000_00;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int accountCount = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int inFlight = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+
+        Path journal = Files.createTempFile("ledger", ".journal");
+        AccountLedger ledger = new AccountLedger(journal);
+        AccountLedger.Account[] accounts = new AccountLedger.Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = ledger.openAccount("acct-" + i, INITIAL_CENTS);
+        }
+        long expectedTotal = INITIAL_CENTS * accountCount;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder completed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder audits = new LongAdder();
+        AtomicBoolean consistent = new AtomicBoolean(true);
+
+        // Auditor: takes consistent snapshots while transfers are running
+        Thread auditor = new Thread(() -> {
+            while (running.get()) {
+                long total = ledger.auditTotal();
+                audits.increment();
+                if (total != expectedTotal) {
+                    System.out.println("Audit failed: total " + total + " != " + expectedTotal);
+                    consistent.set(false);
+                }
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                ArrayDeque<CompletableFuture<Boolean>> window = new ArrayDeque<>(inFlight);
+                while (running.get()) {
+                    int from = random.nextInt(accountCount);
+                    int to = random.nextInt(accountCount - 1);
+                    if (to >= from) to++;
+                    window.add(ledger.transferAsync(accounts[from], accounts[to], 1 + random.nextInt(5_000)));
+                    if (window.size() >= inFlight) {
+                        settle(window.poll(), completed, rejected);
+                    }
+                }
+                while (!window.isEmpty()) {
+                    settle(window.poll(), completed, rejected);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        auditor.start();
+        for (Thread worker : workers) worker.start();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread worker : workers) worker.join();
+        long elapsed = System.nanoTime() - start;
+        auditor.join();
+
+        long ops = completed.sum() + rejected.sum();
+        System.out.printf("%d threads: %,d durable transfers in %.1f s = %,.0f ops/sec (%,d rejected for funds)%n",
+                threads, ops, elapsed / 1e9, ops * 1e9 / elapsed, rejected.sum());
+        System.out.printf("Group commits: %,d (%.0f ops per fsync), audits: %d%n",
+                ledger.getGroupCommits(), (double) ops / Math.max(1, ledger.getGroupCommits()), audits.sum());
+
+        // Final checks: conservation, no overdrafts, journal replay matches memory
+        checkFinal(ledger, expectedTotal, consistent);
+        ledger.close();
+        try (AccountLedger replayed = new AccountLedger(journal)) {
+            List<AccountLedger.Account> original = ledger.accounts();
+            List<AccountLedger.Account> recovered = replayed.accounts();
+            for (int i = 0; i < original.size(); i++) {
+                if (original.get(i).balanceCents != recovered.get(i).balanceCents) {
+                    System.out.println("Replay mismatch for " + original.get(i).name);
+                    consistent.set(false);
+                    break;
+                }
+            }
+        }
+        Files.deleteIfExists(journal);
+        System.out.println(consistent.get() ? "Consistency check PASSED" : "Consistency check FAILED");
+    }
+
+    private static void settle(CompletableFuture<Boolean> result, LongAdder completed, LongAdder rejected) {
+        if (result.join()) {
+            completed.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    private static void checkFinal(AccountLedger ledger, long expectedTotal, AtomicBoolean consistent) {
+        long total = 0;
+        for (AccountLedger.Account account : ledger.accounts()) {
+            if (account.balanceCents < 0) {
+                System.out.println("Negative balance: " + account.name);
+                consistent.set(false);
+            }
+            total += account.balanceCents;
+        }
+        if (total != expectedTotal) {
+            System.out.println("Final total " + total + " != " + expectedTotal);
+            consistent.set(false);
+        }
+    }
+}
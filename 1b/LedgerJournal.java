@@ -0,0 +1,215 @@
+// LedgerJournal.java
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+// Append-only journal of ledger operations with group commit:
+// a writer thread takes every record queued since the last fsync, writes them
+// in one go, forces the file once and only then completes the waiting operations.
+// Every record ends with a CRC32 of its bytes, so replay can tell where a torn write begins.
+// After a write error the journal fails every later record: memory may already hold changes
+// that never reached the file, and only a restart (replaying the file) brings the two back in line.
+class LedgerJournal implements AutoCloseable {
+    static final byte OPEN = 1;
+    static final byte DEPOSIT = 2;
+    static final byte WITHDRAW = 3;
+    static final byte TRANSFER = 4;
+
+    private static final int MAX_GROUP = 4096;
+    private static final int CRC_BYTES = 4;
+
+    // Callback used when replaying an existing journal
+    interface Replay {
+        void open(int accountId, String name);
+        void apply(byte type, int from, int to, long amountCents);
+    }
+
+    private static final class Entry {
+        final byte type;
+        final int from;
+        final int to;
+        final long amountCents;
+        final byte[] name;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        Entry(byte type, int from, int to, long amountCents, byte[] name) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.amountCents = amountCents;
+            this.name = name;
+        }
+    }
+
+    private static final Entry STOP = new Entry((byte) 0, 0, 0, 0, null);
+
+    private final FileChannel channel;
+    private final LinkedBlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+    private volatile long groupCommits;
+    private volatile IOException failure;
+
+    // Open for appending after the valid prefix returned by replay; anything past it is a torn tail
+    public LedgerJournal(Path file, long validLength) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            channel.truncate(validLength);
+            channel.force(false);
+        }
+        channel.position(validLength);
+        this.writer = new Thread(this::writeLoop, "ledger-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Replay every intact record of an existing journal file and return the length they cover;
+    // replay stops at the first short or corrupt record (a torn write at the tail)
+    static long replay(Path file, Replay replay) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        int valid = 0;
+        while (valid < bytes.length) {
+            int start = valid;
+            data.position(start);
+            byte type = data.get();
+            int length;
+            if (type == OPEN) {
+                if (bytes.length - start < 7) break;
+                length = 7 + (data.getShort(start + 5) & 0xFFFF);
+            } else if (type == DEPOSIT || type == WITHDRAW || type == TRANSFER) {
+                length = 17;
+            } else {
+                break;
+            }
+            if (bytes.length - start < length + CRC_BYTES) break;
+            crc.reset();
+            crc.update(bytes, start, length);
+            if (data.getInt(start + length) != (int) crc.getValue()) break;
+
+            if (type == OPEN) {
+                replay.open(data.getInt(), new String(bytes, start + 7, length - 7, StandardCharsets.UTF_8));
+            } else {
+                replay.apply(type, data.getInt(), data.getInt(), data.getLong());
+            }
+            valid = start + length + CRC_BYTES;
+        }
+        return valid;
+    }
+
+    public CompletableFuture<Void> appendOpen(int accountId, String name) {
+        return enqueue(new Entry(OPEN, accountId, 0, 0, name.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Queue a record; the future completes once it has been forced to disk
+    public CompletableFuture<Void> append(byte type, int from, int to, long amountCents) {
+        return enqueue(new Entry(type, from, to, amountCents, null));
+    }
+
+    public long getGroupCommits() {
+        return groupCommits;
+    }
+
+    // Refuse new operations once a write has failed, before they change any balance
+    public void checkWritable() {
+        IOException e = failure;
+        if (e != null) {
+            throw new IllegalStateException("Ledger journal failed; the ledger no longer accepts changes", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private CompletableFuture<Void> enqueue(Entry entry) {
+        IOException e = failure;
+        if (e != null) {
+            entry.durable.completeExceptionally(new UncheckedIOException(e));
+            return entry.durable;
+        }
+        pending.add(entry);
+        return entry.durable;
+    }
+
+    private void writeLoop() {
+        List<Entry> group = new ArrayList<>(MAX_GROUP);
+        boolean running = true;
+        while (running) {
+            try {
+                group.add(pending.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(group, MAX_GROUP - 1);
+            if (group.remove(STOP)) {
+                running = false;
+            }
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                for (Entry entry : group) {
+                    if (buffer.remaining() < 7 + (entry.name == null ? 16 : entry.name.length) + CRC_BYTES) {
+                        drain();
+                    }
+                    int start = buffer.position();
+                    buffer.put(entry.type);
+                    if (entry.type == OPEN) {
+                        buffer.putInt(entry.from).putShort((short) entry.name.length).put(entry.name);
+                    } else {
+                        buffer.putInt(entry.from).putInt(entry.to).putLong(entry.amountCents);
+                    }
+                    crc.reset();
+                    crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+                    buffer.putInt((int) crc.getValue());
+                }
+                drain();
+                channel.force(false);
+                groupCommits++;
+                for (Entry entry : group) {
+                    entry.durable.complete(null);
+                }
+            } catch (IOException e) {
+                // Nothing more is written: a partial record may sit at the tail until replay truncates it
+                failure = e;
+                buffer.clear();
+                for (Entry entry : group) {
+                    entry.durable.completeExceptionally(new UncheckedIOException(e));
+                }
+            }
+            group.clear();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,13 @@
+// StoredCredential.java
+// Salted PBKDF2 hash as kept by a credential store
+final class StoredCredential {
+    final byte[] salt;
+    final byte[] hash;
+    final int iterations;
+
+    StoredCredential(byte[] salt, byte[] hash, int iterations) {
+        this.salt = salt;
+        this.hash = hash;
+        this.iterations = iterations;
+    }
+}
@@ -0,0 +1,6 @@
+// CredentialStore.java
+// Pluggable storage for user credentials
+interface CredentialStore {
+    StoredCredential find(String username);
+    void save(String username, StoredCredential credential);
+}
@@ -0,0 +1,195 @@
+// CredentialVerifier.java
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+// Verifies passwords against a credential store.
+// Hashing runs on a bounded worker pool so a login storm cannot starve other work, and
+// recent successful logins are cached briefly so reconnect bursts skip the PBKDF2 cost.
+class CredentialVerifier {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int ITERATIONS = 120_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int MAX_CACHED = 10_000;
+    // Unknown users are hashed against this salt so they cost (and take) as long as known ones
+    private static final byte[] DUMMY_SALT = new byte[SALT_BYTES];
+
+    static {
+        new SecureRandom().nextBytes(DUMMY_SALT);
+    }
+
+    private static final class CachedLogin {
+        final byte[] fingerprint;
+        final long expiresAt;
+
+        CachedLogin(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final CredentialStore store;
+    private final ThreadPoolExecutor workers;
+    private final ConcurrentHashMap<String, CachedLogin> recentLogins = new ConcurrentHashMap<>();
+    private final long cacheTtlNanos;
+    private final byte[] cachePepper = new byte[16];
+    private final SecureRandom random = new SecureRandom();
+
+    // Metrics; latency covers PBKDF2 verifications only, cache hits are counted on their own
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public CredentialVerifier(CredentialStore store, int threads, int queueCapacity, long cacheTtl, TimeUnit unit) {
+        this.store = store;
+        this.cacheTtlNanos = unit.toNanos(cacheTtl);
+        random.nextBytes(cachePepper);
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "credential-verifier-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    // Hash and store a password for a user
+    public void register(String username, String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        store.save(username, new StoredCredential(salt, pbkdf2(password, salt, ITERATIONS), ITERATIONS));
+        recentLogins.remove(username);
+    }
+
+    // Blocking check; returns false for bad credentials or when the pool is saturated
+    public boolean verify(String username, String password) {
+        try {
+            return verifyAsync(username, password).join();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Check credentials on the worker pool; completes exceptionally with
+    // RejectedExecutionException if the queue is full
+    public CompletableFuture<Boolean> verifyAsync(String username, String password) {
+        long start = System.nanoTime();
+        byte[] fingerprint = fingerprint(username, password);
+        CachedLogin cached = recentLogins.get(username);
+        if (cached != null && start - cached.expiresAt < 0 && MessageDigest.isEqual(cached.fingerprint, fingerprint)) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(true);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean ok = check(username, password);
+                if (ok) {
+                    cache(username, fingerprint);
+                }
+                record(start);
+                return ok;
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            CompletableFuture<Boolean> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    public int queueDepth() {
+        return workers.getQueue().size();
+    }
+
+    public long verificationCount() {
+        return verifications.sum();
+    }
+
+    public long cacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public double averageLatencyMillis() {
+        long count = verifications.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / count;
+    }
+
+    public double maxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private boolean check(String username, String password) {
+        StoredCredential credential = store.find(username);
+        if (credential == null) {
+            pbkdf2(password, DUMMY_SALT, ITERATIONS);
+            return false;
+        }
+        return MessageDigest.isEqual(credential.hash, pbkdf2(password, credential.salt, credential.iterations));
+    }
+
+    private void cache(String username, byte[] fingerprint) {
+        long now = System.nanoTime();
+        if (recentLogins.size() >= MAX_CACHED) {
+            recentLogins.values().removeIf(entry -> now - entry.expiresAt >= 0);
+            if (recentLogins.size() >= MAX_CACHED) {
+                return;
+            }
+        }
+        recentLogins.put(username, new CachedLogin(fingerprint, now + cacheTtlNanos));
+    }
+
+    private void record(long start) {
+        long elapsed = System.nanoTime() - start;
+        verifications.increment();
+        totalLatencyNanos.add(elapsed);
+        maxLatencyNanos.accumulate(elapsed);
+    }
+
+    // Cheap keyed digest used only to recognise a repeat of a recently verified password
+    private byte[] fingerprint(String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(cachePepper);
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
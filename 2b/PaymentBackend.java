@@ -0,0 +1,6 @@
+// PaymentBackend.java
+// Pluggable payment processor; receives one call per batch of same-type payments
+interface PaymentBackend {
+    // amountsCents[0..count) are the payments in this batch
+    void processBatch(PaymentType type, long[] amountsCents, int count);
+}
@@ -0,0 +1,235 @@
+// PaymentPipeline.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Payments are accepted into a bounded queue and a dispatcher thread drains them,
+// groups them by PaymentType and hands each group to the backend in a single call.
+// A batch the backend throws on is counted as failed and dropped; the dispatcher keeps going.
+class PaymentPipeline implements AutoCloseable {
+    private static final Payment POISON = new Payment(null, 0);
+
+    static final class Payment {
+        final PaymentType type;
+        final long amountCents;
+        final long enqueuedAt;
+
+        Payment(PaymentType type, long amountCents) {
+            this.type = type;
+            this.amountCents = amountCents;
+            this.enqueuedAt = System.nanoTime();
+        }
+    }
+
+    private final BlockingQueue<Payment> queue;
+    private final PaymentBackend backend;
+    private final int maxBatchSize;
+    private final Thread dispatcher;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failedPayments = new LongAdder();
+    private volatile RuntimeException lastFailure;
+    // Submitters share the read lock; close takes the write lock so no payment can be queued behind POISON
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    // Per-type batch buffers, reused for every dispatch
+    private final long[][] amounts;
+    private final long[][] enqueueTimes;
+    private final int[] counts;
+
+    public PaymentPipeline(PaymentBackend backend, int queueCapacity, int maxBatchSize) {
+        this.backend = backend;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        int types = PaymentType.values().length;
+        this.amounts = new long[types][maxBatchSize];
+        this.enqueueTimes = new long[types][maxBatchSize];
+        this.counts = new int[types];
+        this.dispatcher = new Thread(this::dispatchLoop, "payment-dispatcher");
+        dispatcher.start();
+    }
+
+    // Blocks while the queue is full
+    public void submit(PaymentFactory factory, long amountCents) throws InterruptedException {
+        Payment payment = new Payment(factory.getType(), amountCents);
+        closing.readLock().lockInterruptibly();
+        try {
+            checkOpen();
+            queue.put(payment);
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    // Non-blocking variant; returns false if the queue is full
+    public boolean trySubmit(PaymentFactory factory, long amountCents) {
+        Payment payment = new Payment(factory.getType(), amountCents);
+        closing.readLock().lock();
+        try {
+            checkOpen();
+            return queue.offer(payment);
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Enqueue-to-processed latency; safe to read once the pipeline is closed
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Payments in batches the backend threw on
+    public long getFailedPayments() {
+        return failedPayments.sum();
+    }
+
+    // The most recent backend failure, or null
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    // Processes everything already submitted, then stops the dispatcher; later calls do nothing.
+    // Waits even if interrupted, and restores the interrupt flag afterwards.
+    @Override
+    public void close() {
+        closing.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(POISON);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (true) {
+            try {
+                dispatcher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Payment pipeline is closed");
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Payment> drained = new ArrayList<>(maxBatchSize);
+        boolean running = true;
+        try {
+            while (running) {
+                drained.add(queue.take());
+                queue.drainTo(drained, maxBatchSize - 1);
+                for (Payment payment : drained) {
+                    if (payment == POISON) {
+                        running = false;
+                        continue;
+                    }
+                    int t = payment.type.ordinal();
+                    amounts[t][counts[t]] = payment.amountCents;
+                    enqueueTimes[t][counts[t]] = payment.enqueuedAt;
+                    counts[t]++;
+                }
+                drained.clear();
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        PaymentType[] types = PaymentType.values();
+        for (int t = 0; t < types.length; t++) {
+            int count = counts[t];
+            if (count == 0) {
+                continue;
+            }
+            counts[t] = 0;
+            try {
+                backend.processBatch(types[t], amounts[t], count);
+            } catch (RuntimeException e) {
+                failedPayments.add(count);
+                lastFailure = e;
+                continue;
+            }
+            long done = System.nanoTime();
+            long[] times = enqueueTimes[t];
+            for (int i = 0; i < count; i++) {
+                latency.record(done - times[i]);
+            }
+        }
+    }
+
+    // Log-linear histogram (8 sub-buckets per power of two), single writer
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 3;
+        private final long[] buckets = new long[64 << SUB_BITS];
+        private long count;
+
+        void record(long nanos) {
+            buckets[index(Math.max(nanos, 1))]++;
+            count++;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        // Upper bound of the bucket containing the given percentile (0-100)
+        public long percentileNanos(double percentile) {
+            long target = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            if (magnitude < SUB_BITS) {
+                return (int) value;
+            }
+            int sub = (int) (value >>> (magnitude - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+            return ((magnitude - SUB_BITS + 1) << SUB_BITS) + sub;
+        }
+
+        private static long upperBound(int index) {
+            int group = index >>> SUB_BITS;
+            int sub = index & ((1 << SUB_BITS) - 1);
+            if (group == 0) {
+                return sub;
+            }
+            int magnitude = group + SUB_BITS - 1;
+            return ((long) ((1 << SUB_BITS) + sub + 1) << (magnitude - SUB_BITS)) - 1;
+        }
+    }
+}
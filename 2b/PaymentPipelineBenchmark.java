@@ -0,0 +1,52 @@
+// PaymentPipelineBenchmark.java
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput and latency of the payment pipeline for batch sizes 1-1000.
+// Usage: java PaymentPipelineBenchmark [payments] [backendLatencyMicros] [producers]
+public class PaymentPipelineBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long backendLatency = TimeUnit.MICROSECONDS.toNanos(args.length > 1 ? Long.parseLong(args[1]) : 100);
+        int producers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        PaymentFactory[] factories = { new CreditCardFactory(), new PayPalFactory(), new CashFactory() };
+
+        System.out.printf("%,d payments, %d producers, backend latency %d us per call%n",
+                payments, producers, TimeUnit.NANOSECONDS.toMicros(backendLatency));
+        System.out.println("batch   payments/sec   backend calls   p50 us   p99 us   p99.9 us");
+        for (int batchSize : new int[] { 1, 10, 100, 1000 }) {
+            // Fewer payments at batch size 1, where every payment pays the full backend latency
+            int total = batchSize == 1 ? Math.min(payments, 20_000) : payments;
+            StubPaymentBackend backend = new StubPaymentBackend(backendLatency);
+            PaymentPipeline pipeline = new PaymentPipeline(backend, 4 * Math.max(batchSize, 256), batchSize);
+
+            long start = System.nanoTime();
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                int index = p;
+                threads[p] = new Thread(() -> {
+                    SplittableRandom random = new SplittableRandom(index);
+                    try {
+                        for (int i = index; i < total; i += producers) {
+                            pipeline.submit(factories[random.nextInt(factories.length)], 100 + random.nextInt(10_000));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads[p].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            pipeline.close();
+            long elapsed = System.nanoTime() - start;
+
+            PaymentPipeline.LatencyHistogram latency = pipeline.getLatency();
+            System.out.printf("%5d   %,12.0f   %,13d   %6d   %6d   %8d%n",
+                    batchSize, backend.getPaymentCount() * 1e9 / elapsed, backend.getBatchCount(),
+                    latency.percentileNanos(50) / 1000, latency.percentileNanos(99) / 1000,
+                    latency.percentileNanos(99.9) / 1000);
+        }
+    }
+}
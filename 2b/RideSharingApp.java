@@ -1,36 +1,50 @@
 // RideSharingApp.java
 
+import java.util.concurrent.TimeUnit;
+
 // Singleton pattern to manage user authentication
+// Each successful login gets its own session token, so many users can be logged in at once
 class UserAuthentication {
-    private static UserAuthentication instance;
-    private boolean isAuthenticated = false;
+    private final SessionStore sessions = new SessionStore(30, TimeUnit.MINUTES);
+    private final CredentialVerifier verifier = new CredentialVerifier(new InMemoryCredentialStore(),
+            Runtime.getRuntime().availableProcessors(), 1024, 2, TimeUnit.MINUTES);
 
     private UserAuthentication() {
+        verifier.register("user", "password");
     }
 
-    public static synchronized UserAuthentication getInstance() {
-        if (instance == null) {
-            instance = new UserAuthentication();
-        }
-        return instance;
+    // Lazy holder: initialized once by the class loader, no lock on getInstance()
+    private static class Holder {
+        private static final UserAuthentication INSTANCE = new UserAuthentication();
     }
 
-    public void login(String username, String password) {
-        if (username.equals("user") && password.equals("password")) {
-            isAuthenticated = true;
+    public static UserAuthentication getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Returns a session token on success, or null for invalid credentials
+    public String login(String username, String password) {
+        if (verifier.verify(username, password)) {
             System.out.println("User logged in successfully!");
+            return sessions.create(username);
         } else {
             System.out.println("Invalid credentials!");
+            return null;
         }
     }
 
-    public void logout() {
-        isAuthenticated = false;
+    public void logout(String token) {
+        sessions.invalidate(token);
         System.out.println("User logged out successfully!");
     }
 
-    public boolean isAuthenticated() {
-        return isAuthenticated;
+    public boolean isAuthenticated(String token) {
+        return sessions.validate(token) != null;
+    }
+
+    // Exposes queue depth and latency metrics of credential checks
+    public CredentialVerifier getVerifier() {
+        return verifier;
     }
 }
 
@@ -73,48 +87,72 @@ class VehicleFactory {
 }
 
 // Abstract Factory pattern for creating payment methods
+// Amounts are fixed-point cents to avoid floating-point rounding
 interface PaymentMethod {
-    void pay(double amount);
+    void pay(long amountCents);
+
+    static String format(long amountCents) {
+        return String.format("%d.%02d", amountCents / 100, Math.abs(amountCents % 100));
+    }
 }
 
 class CreditCard implements PaymentMethod {
-    public void pay(double amount) {
-        System.out.println("Paying $" + amount + " with Credit Card.");
+    public void pay(long amountCents) {
+        System.out.println("Paying $" + PaymentMethod.format(amountCents) + " with Credit Card.");
     }
 }
 
 class PayPal implements PaymentMethod {
-    public void pay(double amount) {
-        System.out.println("Paying $" + amount + " with PayPal.");
+    public void pay(long amountCents) {
+        System.out.println("Paying $" + PaymentMethod.format(amountCents) + " with PayPal.");
     }
 }
 
 class Cash implements PaymentMethod {
-    public void pay(double amount) {
-        System.out.println("Paying $" + amount + " with Cash.");
+    public void pay(long amountCents) {
+        System.out.println("Paying $" + PaymentMethod.format(amountCents) + " with Cash.");
     }
 }
 
+enum PaymentType {
+    CREDIT_CARD, PAYPAL, CASH
+}
+
 abstract class PaymentFactory {
     public abstract PaymentMethod createPaymentMethod();
+
+    // Used by the payment pipeline to group payments into per-type batches
+    public abstract PaymentType getType();
 }
 
 class CreditCardFactory extends PaymentFactory {
     public PaymentMethod createPaymentMethod() {
         return new CreditCard();
     }
+
+    public PaymentType getType() {
+        return PaymentType.CREDIT_CARD;
+    }
 }
 
 class PayPalFactory extends PaymentFactory {
     public PaymentMethod createPaymentMethod() {
         return new PayPal();
     }
+
+    public PaymentType getType() {
+        return PaymentType.PAYPAL;
+    }
 }
 
 class CashFactory extends PaymentFactory {
     public PaymentMethod createPaymentMethod() {
         return new Cash();
     }
+
+    public PaymentType getType() {
+        return PaymentType.CASH;
+    }
 }
 
 // Main Ride-Sharing Application
@@ -124,12 +162,13 @@ public class RideSharingApp {
         UserAuthentication auth = UserAuthentication.getInstance();
 
         // User tries to request a ride without logging in
-        if (!auth.isAuthenticated()) {
+        String token = null;
+        if (!auth.isAuthenticated(token)) {
             System.out.println("Please log in to request a ride.");
         }
 
         // User logs in
-        auth.login("user", "password");
+        token = auth.login("user", "password");
 
         // Factory Method: Creating vehicles
         Vehicle vehicle = VehicleFactory.createVehicle("car");
@@ -144,21 +183,21 @@ public class RideSharingApp {
         // Abstract Factory: Creating payment methods
         PaymentFactory paymentFactory = new CreditCardFactory();
         PaymentMethod paymentMethod = paymentFactory.createPaymentMethod();
-        paymentMethod.pay(15.75);
+        paymentMethod.pay(1575);
 
         paymentFactory = new PayPalFactory();
         paymentMethod = paymentFactory.createPaymentMethod();
-        paymentMethod.pay(8.50);
+        paymentMethod.pay(850);
 
         paymentFactory = new CashFactory();
         paymentMethod = paymentFactory.createPaymentMethod();
-        paymentMethod.pay(5.00);
+        paymentMethod.pay(500);
 
         // User logs out
-        auth.logout();
+        auth.logout(token);
 
         // Try to request another ride after logout
-        if (!auth.isAuthenticated()) {
+        if (!auth.isAuthenticated(token)) {
             System.out.println("Please log in to request a ride.");
         }
     }
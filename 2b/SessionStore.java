@@ -0,0 +1,136 @@
+// SessionStore.java
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent session store keyed by opaque tokens.
+// Validation is a single map read (no locks); idle sessions expire through a timer wheel.
+class SessionStore {
+    private static final int WHEEL_SIZE = 512;
+    private static final int TOKEN_BYTES = 18;
+
+    static final class Session {
+        final String token;
+        final String username;
+        volatile long expiresAt;
+
+        Session(String token, String username, long expiresAt) {
+            this.token = token;
+            this.username = username;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+    private final long ttlNanos;
+    private final long tickNanos;
+
+    // Timer wheel: each bucket holds sessions whose expiry falls into that tick (modulo the wheel)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ConcurrentLinkedQueue<Session>[] wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+    private final ScheduledExecutorService ticker;
+    private long lastTick;
+
+    public SessionStore(long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), ttlNanos / (WHEEL_SIZE / 2));
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = System.nanoTime() / tickNanos;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Create a new session and return its token
+    public String create(String username) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.get().nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, username, System.nanoTime() + ttlNanos);
+        sessions.put(token, session);
+        schedule(session);
+        return token;
+    }
+
+    // Return the username for a live token (sliding its expiry), or null if unknown or expired
+    public String validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        long expiresAt = session.expiresAt;
+        if (now - expiresAt >= 0) {
+            sessions.remove(token, session);
+            return null;
+        }
+        // Only slide when it moves the expiry by at least one tick, to avoid a volatile write per check
+        long slid = now + ttlNanos;
+        if (slid - expiresAt >= tickNanos) {
+            session.expiresAt = slid;
+        }
+        return session.username;
+    }
+
+    // Remove a session; returns true if it existed
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Stop the expiry ticker
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void schedule(Session session) {
+        schedule(session, session.expiresAt / tickNanos);
+    }
+
+    private void schedule(Session session, long tick) {
+        wheel[(int) (tick & (WHEEL_SIZE - 1))].add(session);
+    }
+
+    // Sweep every bucket passed since the last tick; sessions that were slid are rescheduled
+    private void advance() {
+        long now = System.nanoTime();
+        long currentTick = now / tickNanos;
+        long from = Math.max(lastTick, currentTick - WHEEL_SIZE + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            ConcurrentLinkedQueue<Session> bucket = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+            int pending = bucket.size();
+            for (int i = 0; i < pending; i++) {
+                Session session = bucket.poll();
+                if (session == null) {
+                    break;
+                }
+                if (sessions.get(session.token) != session) {
+                    continue; // already logged out
+                }
+                if (now - session.expiresAt >= 0) {
+                    sessions.remove(session.token, session);
+                } else {
+                    // Never back into a bucket this sweep has passed, or it waits a full revolution
+                    schedule(session, Math.max(session.expiresAt / tickNanos, currentTick + 1));
+                }
+            }
+        }
+        lastTick = currentTick + 1;
+    }
+}
@@ -0,0 +1,77 @@
+// SessionStoreBenchmark.java
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Measures login throughput and token-check latency with a large number of active sessions.
+// Usage: java SessionStoreBenchmark [sessions] [threads]
+public class SessionStoreBenchmark {
+    private static final int CHECKS_PER_THREAD = 2_000_000;
+    private static final int SAMPLE_EVERY = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        SessionStore store = new SessionStore(30, TimeUnit.MINUTES);
+        String[] tokens = new String[sessionCount];
+
+        // Phase 1: login throughput
+        long start = System.nanoTime();
+        runThreads(threads, t -> {
+            for (int i = t; i < sessionCount; i += threads) {
+                tokens[i] = store.create("user" + i);
+            }
+        });
+        long loginNanos = System.nanoTime() - start;
+        System.out.printf("Logins: %,d sessions in %d ms (%,.0f logins/sec, %d threads)%n",
+                sessionCount, loginNanos / 1_000_000, sessionCount * 1e9 / loginNanos, threads);
+
+        // Phase 2: token checks against the full store, sampling per-call latency
+        long[][] samples = new long[threads][CHECKS_PER_THREAD / SAMPLE_EVERY];
+        start = System.nanoTime();
+        runThreads(threads, t -> {
+            SplittableRandom random = new SplittableRandom(t);
+            long[] mine = samples[t];
+            int misses = 0;
+            for (int i = 0; i < CHECKS_PER_THREAD; i++) {
+                String token = tokens[random.nextInt(sessionCount)];
+                if (i % SAMPLE_EVERY == 0) {
+                    long before = System.nanoTime();
+                    if (store.validate(token) == null) misses++;
+                    mine[i / SAMPLE_EVERY] = System.nanoTime() - before;
+                } else if (store.validate(token) == null) {
+                    misses++;
+                }
+            }
+            if (misses > 0) {
+                System.out.println("Unexpected misses: " + misses);
+            }
+        });
+        long checkNanos = System.nanoTime() - start;
+        long totalChecks = (long) CHECKS_PER_THREAD * threads;
+
+        long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("Token checks: %,.0f checks/sec, p50 %d ns, p99 %d ns, p99.9 %d ns (%,d active sessions)%n",
+                totalChecks * 1e9 / checkNanos,
+                all[all.length / 2], all[(int) (all.length * 0.99)], all[(int) (all.length * 0.999)],
+                store.size());
+        store.close();
+    }
+
+    interface Worker {
+        void run(int threadIndex);
+    }
+
+    static void runThreads(int count, Worker worker) throws InterruptedException {
+        Thread[] threads = new Thread[count];
+        for (int t = 0; t < count; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> worker.run(index));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
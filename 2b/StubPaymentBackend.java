@@ -0,0 +1,41 @@
+// StubPaymentBackend.java
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Local stand-in for a payment provider with an injectable per-call latency
+class StubPaymentBackend implements PaymentBackend {
+    private final long latencyNanos;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder payments = new LongAdder();
+    private final LongAdder totalCents = new LongAdder();
+
+    public StubPaymentBackend(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public void processBatch(PaymentType type, long[] amountsCents, int count) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += amountsCents[i];
+        }
+        batches.increment();
+        payments.add(count);
+        totalCents.add(sum);
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getPaymentCount() {
+        return payments.sum();
+    }
+
+    public long getTotalCents() {
+        return totalCents.sum();
+    }
+}
@@ -0,0 +1,33 @@
+// BackgroundThreads.java
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Virtual threads when the runtime has them (Java 21+), daemon platform threads otherwise
+final class BackgroundThreads {
+    private BackgroundThreads() {
+    }
+
+    static ExecutorService newExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> daemon(name, r));
+        }
+    }
+
+    static Thread start(String name, Runnable task) {
+        try {
+            return (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class).invoke(null, task);
+        } catch (ReflectiveOperationException e) {
+            Thread thread = daemon(name, task);
+            thread.start();
+            return thread;
+        }
+    }
+
+    private static Thread daemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
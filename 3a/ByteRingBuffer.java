@@ -0,0 +1,55 @@
+// ByteRingBuffer.java
+import java.nio.ByteBuffer;
+
+// Single-producer, single-consumer ring of bytes. The producer only moves `tail` and the
+// consumer only moves `head`; both are volatile, so neither side ever takes a lock.
+class ByteRingBuffer {
+    private final byte[] data;
+    private final int mask;
+    private volatile long head; // next byte to read
+    private volatile long tail; // next byte to write
+
+    ByteRingBuffer(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacityPowerOfTwo);
+        }
+        data = new byte[capacityPowerOfTwo];
+        mask = capacityPowerOfTwo - 1;
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    int available() {
+        return (int) (tail - head);
+    }
+
+    int free() {
+        return data.length - available();
+    }
+
+    // Producer side: copies as much of src as fits; returns the number of bytes written
+    int write(ByteBuffer src) {
+        long t = tail;
+        int count = Math.min(src.remaining(), data.length - (int) (t - head));
+        int offset = (int) (t & mask);
+        int first = Math.min(count, data.length - offset);
+        src.get(data, offset, first);
+        src.get(data, 0, count - first);
+        tail = t + count;
+        return count;
+    }
+
+    // Consumer side: copies up to dst.remaining() bytes; returns the number of bytes read
+    int read(ByteBuffer dst) {
+        long h = head;
+        int count = Math.min(dst.remaining(), (int) (tail - h));
+        int offset = (int) (h & mask);
+        int first = Math.min(count, data.length - offset);
+        dst.put(data, offset, first);
+        dst.put(data, 0, count - first);
+        head = h + count;
+        return count;
+    }
+}
@@ -0,0 +1,33 @@
+// HttpByteSource.java
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+// Byte source reading the body of an HTTP GET
+class HttpByteSource implements ByteSource {
+    private final HttpURLConnection connection;
+    private final ReadableByteChannel channel;
+
+    HttpByteSource(String url) throws IOException {
+        connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(5_000);
+        connection.setReadTimeout(10_000);
+        InputStream in = connection.getInputStream();
+        channel = Channels.newChannel(in);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        return channel.read(dst);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        connection.disconnect();
+    }
+}
@@ -0,0 +1,60 @@
+// LoopbackAudioServer.java
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Local HTTP stand-in for a streaming service: serves `/stream` at a target bitrate,
+// in packets with random delivery jitter.
+class LoopbackAudioServer implements AutoCloseable {
+    private static final int PACKET_BYTES = 4 * 1024;
+
+    private final HttpServer server;
+
+    LoopbackAudioServer(int bytesPerSecond, long totalBytes, long maxJitterMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/stream", exchange -> {
+            exchange.sendResponseHeaders(200, totalBytes);
+            Random random = new Random();
+            byte[] packet = new byte[PACKET_BYTES];
+            long packetNanos = TimeUnit.SECONDS.toNanos(1) * PACKET_BYTES / bytesPerSecond;
+            long due = System.nanoTime();
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (long sent = 0; sent < totalBytes; sent += PACKET_BYTES) {
+                    due += packetNanos;
+                    long jitter = maxJitterMillis == 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(random.nextInt((int) maxJitterMillis + 1));
+                    long wait = due + jitter - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    random.nextBytes(packet);
+                    body.write(packet, 0, (int) Math.min(PACKET_BYTES, totalBytes - sent));
+                    body.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // client went away
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "loopback-audio");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/stream";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
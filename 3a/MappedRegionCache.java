@@ -0,0 +1,90 @@
+// MappedRegionCache.java
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Bounded LRU of memory-mapped file regions, shared by all readers.
+// Hot tracks stay mapped; cold regions are dropped and unmapped by the GC.
+// Regions are keyed by the file size too, so a file that grew or shrank is mapped afresh.
+class MappedRegionCache {
+    static final int REGION_BYTES = 64 * 1024 * 1024;
+
+    private static final class Key {
+        final Path path;
+        final long fileSize;
+        final long region;
+
+        Key(Path path, long fileSize, long region) {
+            this.path = path;
+            this.fileSize = fileSize;
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).region == region && ((Key) o).fileSize == fileSize
+                    && ((Key) o).path.equals(path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, fileSize, region);
+        }
+    }
+
+    private final long maxBytes;
+    private long mappedBytes;
+    private long hits;
+    private long misses;
+    private final LinkedHashMap<Key, MappedByteBuffer> regions = new LinkedHashMap<>(16, 0.75f, true);
+
+    MappedRegionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // Return the mapped region with the given index, mapping it on a miss; the region may be
+    // shorter than expected (or empty) if the file has shrunk
+    synchronized MappedByteBuffer region(Path path, FileChannel channel, long index) throws IOException {
+        long fileSize = channel.size();
+        Key key = new Key(path.toAbsolutePath(), fileSize, index);
+        MappedByteBuffer region = regions.get(key);
+        if (region != null) {
+            hits++;
+            return region;
+        }
+        misses++;
+        long offset = index * REGION_BYTES;
+        long length = Math.max(0, Math.min(REGION_BYTES, fileSize - offset));
+        region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        regions.put(key, region);
+        mappedBytes += length;
+        evict();
+        return region;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, MappedByteBuffer>> it = regions.entrySet().iterator();
+        while (mappedBytes > maxBytes && regions.size() > 1 && it.hasNext()) {
+            Map.Entry<Key, MappedByteBuffer> eldest = it.next();
+            mappedBytes -= eldest.getValue().capacity();
+            it.remove();
+        }
+    }
+}
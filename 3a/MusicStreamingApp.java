@@ -1,51 +1,113 @@
 // MusicStreamingApp.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 // Common interface for all music sources
 interface MusicSource {
     void play();
+
+    // Process a block of samples in place (plain sources leave them unchanged)
+    default void process(float[] block, int length) {
+    }
 }
 
 // Adapter Pattern: Adapting different music sources to a common interface
 
 // Local file music source
 class LocalFileMusic implements MusicSource {
+    // Mapped regions of hot tracks are shared by every local file source
+    static final MappedRegionCache REGION_CACHE = new MappedRegionCache(512L * 1024 * 1024);
+    static final int CHUNK_BYTES = 64 * 1024;
+
     private String fileName;
 
     public LocalFileMusic(String fileName) {
         this.fileName = fileName;
     }
 
+    // Reader that hands out chunks of the memory-mapped file without copying
+    public MappedChunkReader openReader() throws IOException {
+        return new MappedChunkReader(Paths.get(fileName), REGION_CACHE, CHUNK_BYTES);
+    }
+
     @Override
     public void play() {
         System.out.println("Playing music from local file: " + fileName);
+        if (!Files.isRegularFile(Paths.get(fileName))) {
+            return;
+        }
+        try (MappedChunkReader reader = openReader()) {
+            long bytes = 0;
+            for (ByteBuffer chunk = reader.nextChunk(); chunk != null; chunk = reader.nextChunk()) {
+                bytes += chunk.remaining(); // a real player would decode the chunk here
+            }
+            System.out.println("Streamed " + bytes + " bytes from " + fileName);
+        } catch (IOException e) {
+            System.out.println("Could not read " + fileName + ": " + e.getMessage());
+        }
     }
 }
 
 // Online streaming music source
 class OnlineStreamingMusic implements MusicSource {
     private String streamUrl;
+    private JitterBufferedStream stream;
 
     public OnlineStreamingMusic(String streamUrl) {
         this.streamUrl = streamUrl;
     }
 
+    // Start filling a jitter buffer from the given source in the background
+    public void startStreaming(ByteSource source, int bufferBytes) {
+        stream = new JitterBufferedStream(source, bufferBytes);
+    }
+
+    public void stopStreaming() throws IOException {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public JitterBufferedStream getStream() {
+        return stream;
+    }
+
     @Override
     public void play() {
         System.out.println("Streaming music online from: " + streamUrl);
+        if (stream != null) {
+            // Buffer status only; playback reads never wait on the network
+            System.out.println("Buffered " + stream.bufferedBytes() + " bytes, underruns: " + stream.getUnderruns());
+        }
     }
 }
 
 // Radio station music source
 class RadioStationMusic implements MusicSource {
     private String stationName;
+    private RadioBroadcaster.Station onAir;
 
     public RadioStationMusic(String stationName) {
         this.stationName = stationName;
     }
 
+    // Put this station on air so listeners can tune in to it by name
+    public void broadcastOn(RadioBroadcaster broadcaster) {
+        onAir = broadcaster.addStation(stationName);
+    }
+
+    public int getListenerCount() {
+        return onAir == null ? 0 : onAir.listenerCount();
+    }
+
     @Override
     public void play() {
         System.out.println("Playing music from radio station: " + stationName);
+        if (onAir != null) {
+            System.out.println("On air to " + onAir.listenerCount() + " listeners");
+        }
     }
 }
 
@@ -62,15 +124,31 @@ abstract class MusicDecorator implements MusicSource {
     public void play() {
         decoratedMusicSource.play();
     }
+
+    // The sample processing this decorator adds
+    public abstract SampleStage getStage();
+
+    // Nested mode: every layer makes its own pass over the block
+    @Override
+    public void process(float[] block, int length) {
+        decoratedMusicSource.process(block, length);
+        getStage().processBlock(block, 0, length);
+    }
 }
 
 // Equalizer feature decorator
 class EqualizerDecorator extends MusicDecorator {
+    private final SampleStage stage = new EqualizerStage(0.05f, 0.5f);
 
     public EqualizerDecorator(MusicSource musicSource) {
         super(musicSource);
     }
 
+    @Override
+    public SampleStage getStage() {
+        return stage;
+    }
+
     @Override
     public void play() {
         super.play();
@@ -84,9 +162,20 @@ class EqualizerDecorator extends MusicDecorator {
 
 // Volume control feature decorator
 class VolumeControlDecorator extends MusicDecorator {
+    private final SampleStage stage;
 
     public VolumeControlDecorator(MusicSource musicSource) {
+        this(musicSource, 0.8f);
+    }
+
+    public VolumeControlDecorator(MusicSource musicSource, float gain) {
         super(musicSource);
+        this.stage = new GainStage(gain);
+    }
+
+    @Override
+    public SampleStage getStage() {
+        return stage;
     }
 
     @Override
@@ -102,7 +191,7 @@ class VolumeControlDecorator extends MusicDecorator {
 
 // Main Music Streaming Application
 public class MusicStreamingApp {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         // Playing local file music without any additional features
         MusicSource localFile = new LocalFileMusic("song.mp3");
         localFile.play();
@@ -120,5 +209,18 @@ public class MusicStreamingApp {
         MusicSource radioStation = new RadioStationMusic("Rock Radio");
         MusicSource radioWithFeatures = new VolumeControlDecorator(new EqualizerDecorator(radioStation));
         radioWithFeatures.play();
+
+        System.out.println();
+
+        // Playback queue: upcoming tracks are resolved in the background while the current one plays
+        try (PlaybackScheduler scheduler = new PlaybackScheduler(new SimulatedSourceResolver(5, 50, 80), 2, 7)) {
+            scheduler.enqueue(localFile);
+            scheduler.enqueue(onlineStream);
+            scheduler.enqueue(radioStation);
+            while (scheduler.playNext()) {
+                Thread.sleep(100); // stand-in for the track playing
+            }
+            System.out.println("Playback metrics: " + scheduler.metricsSummary());
+        }
     }
 }
\ No newline at end of file
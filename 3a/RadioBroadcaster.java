@@ -0,0 +1,342 @@
+// RadioBroadcaster.java
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Fan-out server for radio stations.
+// A listener connects and sends a station name terminated by '\n'. Every chunk interval each
+// station encodes one chunk into a direct buffer and hands every listener a read-only
+// duplicate of it, so the bytes are never copied per listener. All sockets are non-blocking
+// and served by one selector thread; a listener that falls MAX_BACKLOG chunks behind is
+// disconnected instead of holding the station back.
+class RadioBroadcaster implements AutoCloseable {
+    static final int MAX_BACKLOG = 8;
+    private static final int SEND_BUFFER_BYTES = 32 * 1024;
+    private static final int MAX_NAME_BYTES = 128;
+
+    final class Station {
+        final String name;
+        // Chunks are reused round-robin: a live listener never holds more than MAX_BACKLOG of them
+        private final ByteBuffer[] chunks = new ByteBuffer[MAX_BACKLOG + 1];
+        private final List<Listener> listeners = new ArrayList<>();
+        private long sequence;
+        private volatile int listenerCount;
+
+        Station(String name) {
+            this.name = name;
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(chunkBytes);
+            }
+        }
+
+        int listenerCount() {
+            return listenerCount;
+        }
+
+        // Stand-in for the encoder: produce the next chunk of the station's stream once
+        private ByteBuffer encode() {
+            ByteBuffer chunk = chunks[(int) (sequence % chunks.length)];
+            chunk.clear();
+            byte seed = (byte) (sequence++ + name.hashCode());
+            for (int i = 0; i < chunkBytes; i++) {
+                chunk.put(i, (byte) (seed + i));
+            }
+            return chunk.asReadOnlyBuffer();
+        }
+
+        private void broadcast() {
+            ByteBuffer chunk = encode();
+            for (int i = 0; i < listeners.size(); ) {
+                Listener listener = listeners.get(i);
+                if (listener.closed || !listener.offer(chunk.duplicate())) {
+                    listener.close();
+                    // Swap-remove; order of listeners does not matter
+                    listeners.set(i, listeners.get(listeners.size() - 1));
+                    listeners.remove(listeners.size() - 1);
+                } else {
+                    i++;
+                }
+            }
+            chunksBroadcast++;
+            listenerCount = listeners.size();
+        }
+    }
+
+    private final class Listener {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ArrayDeque<ByteBuffer> backlog = new ArrayDeque<>(4);
+        ByteBuffer request = ByteBuffer.allocate(MAX_NAME_BYTES);
+        boolean closed;
+
+        Listener(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        // Queue a chunk and try to send right away; false if the listener is too far behind
+        boolean offer(ByteBuffer chunk) {
+            if (backlog.size() >= MAX_BACKLOG) {
+                dropped++;
+                return false;
+            }
+            backlog.addLast(chunk);
+            if (backlog.size() == 1) {
+                flush();
+            }
+            return !closed;
+        }
+
+        void flush() {
+            try {
+                ByteBuffer head;
+                while ((head = backlog.peekFirst()) != null) {
+                    bytesSent += channel.write(head);
+                    if (head.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return; // socket buffer full, wait for OP_WRITE
+                    }
+                    backlog.pollFirst();
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                backlog.clear();
+                key.cancel();
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private final int chunkBytes;
+    private final long intervalNanos;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConcurrentHashMap<String, Station> stations = new ConcurrentHashMap<>();
+    private final ByteBuffer discard = ByteBuffer.allocate(512);
+    private final Thread thread;
+    private final SelectionKey serverKey;
+    private volatile boolean running = true;
+
+    // Metrics, written only by the selector thread
+    private volatile long bytesSent;
+    private volatile long chunksBroadcast;
+    private volatile long dropped;
+    private volatile long failedAccepts;
+
+    public RadioBroadcaster(int port, int bitsPerSecond, long chunkMillis) throws IOException {
+        this.chunkBytes = (int) ((long) bitsPerSecond / 8 * chunkMillis / 1000);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(chunkMillis);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+        server.configureBlocking(false);
+        this.serverKey = server.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::selectLoop, "radio-broadcaster");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Put a station on air; listeners can tune in by name
+    public Station addStation(String name) {
+        return stations.computeIfAbsent(name, Station::new);
+    }
+
+    public Station getStation(String name) {
+        return stations.get(name);
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    public int chunkBytes() {
+        return chunkBytes;
+    }
+
+    public int listenerCount() {
+        int total = 0;
+        for (Station station : stations.values()) {
+            total += station.listenerCount();
+        }
+        return total;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getChunksBroadcast() {
+        return chunksBroadcast;
+    }
+
+    public long getDroppedListeners() {
+        return dropped;
+    }
+
+    // Incoming connections that failed while being accepted or set up
+    public long getFailedAccepts() {
+        return failedAccepts;
+    }
+
+    // CPU time consumed so far by the selector thread (all encoding, fan-out and socket I/O)
+    public long cpuTimeNanos() {
+        return ManagementFactory.getThreadMXBean().getThreadCpuTime(thread.getId());
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void selectLoop() {
+        long nextTick = System.nanoTime() + intervalNanos;
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                } else {
+                    selector.selectNow();
+                }
+                Iterator<SelectionKey> ready = selector.selectedKeys().iterator();
+                while (ready.hasNext()) {
+                    SelectionKey key = ready.next();
+                    ready.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Listener listener = (Listener) key.attachment();
+                    if (key.isReadable()) {
+                        read(listener);
+                    }
+                    if (!listener.closed && key.isValid() && key.isWritable()) {
+                        listener.flush();
+                    }
+                }
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    for (Station station : stations.values()) {
+                        station.broadcast();
+                    }
+                    if (serverKey.interestOps() == 0) {
+                        serverKey.interestOps(SelectionKey.OP_ACCEPT); // retry after a failed accept
+                    }
+                    nextTick += intervalNanos;
+                    if (now - nextTick >= intervalNanos) {
+                        nextTick = now + intervalNanos; // fell behind; skip ahead rather than burst
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.out.println("Radio broadcaster stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    // A failing connection is closed on its own, so one bad client cannot stop the broadcast.
+    // If accept itself fails (e.g. out of file descriptors), accepting pauses until the next tick
+    // instead of spinning on a server socket that stays ready.
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                failedAccepts++;
+                serverKey.interestOps(0);
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                // A fixed send buffer bounds how much a stalled listener can absorb before it is dropped
+                channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_BYTES);
+                new Listener(channel);
+            } catch (IOException e) {
+                failedAccepts++;
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    // Before subscribing: collect the station name. After: only watch for the listener hanging up.
+    private void read(Listener listener) {
+        try {
+            ByteBuffer target = listener.request != null ? listener.request : discard;
+            discard.clear();
+            int read = listener.channel.read(target);
+            if (read < 0) {
+                listener.close();
+                return;
+            }
+            if (listener.request == null) {
+                return;
+            }
+            ByteBuffer request = listener.request;
+            for (int i = 0; i < request.position(); i++) {
+                if (request.get(i) == '\n') {
+                    String name = new String(request.array(), 0, i, StandardCharsets.UTF_8).trim();
+                    listener.request = null;
+                    Station station = stations.get(name);
+                    if (station == null) {
+                        listener.close();
+                    } else {
+                        station.listeners.add(listener);
+                        station.listenerCount = station.listeners.size();
+                    }
+                    return;
+                }
+            }
+            if (!request.hasRemaining()) {
+                listener.close(); // no newline within the limit
+            }
+        } catch (IOException e) {
+            listener.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+// ResolvedTrack.java
+import java.nio.ByteBuffer;
+
+// A music source that is ready to play: its first chunk of audio is already fetched
+class ResolvedTrack {
+    final MusicSource source;
+    final ByteBuffer firstChunk;
+    final long resolvedAt; // System.nanoTime()
+
+    ResolvedTrack(MusicSource source, ByteBuffer firstChunk, long resolvedAt) {
+        this.source = source;
+        this.firstChunk = firstChunk;
+        this.resolvedAt = resolvedAt;
+    }
+}
@@ -0,0 +1,66 @@
+// SamplePipeline.java
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Fused mode for a decorator stack: the stack is flattened once into an ordered array of
+// stages (innermost decorator first), and every block is processed in a single pass.
+// The pass walks the block in small tiles and runs every stage over a tile while it is
+// still in L1 cache, so memory is traversed once however many decorators there are,
+// and each stage still runs its own tight loop instead of a virtual call per sample.
+// The pipeline copies the stages, so stateful ones (the equalizer's filter history) are not
+// shared with the decorators and both modes can be used on the same stack.
+class SamplePipeline {
+    private static final int TILE = 256;
+
+    private final SampleStage[] stages;
+    private final float[] block; // reused for PCM conversion, no per-block allocation
+
+    private SamplePipeline(SampleStage[] stages, int blockSize) {
+        this.stages = stages;
+        this.block = new float[blockSize];
+    }
+
+    static SamplePipeline flatten(MusicSource source, int blockSize) {
+        List<SampleStage> stages = new ArrayList<>();
+        while (source instanceof MusicDecorator) {
+            MusicDecorator decorator = (MusicDecorator) source;
+            stages.add(decorator.getStage().copy());
+            source = decorator.decoratedMusicSource;
+        }
+        Collections.reverse(stages);
+        return new SamplePipeline(stages.toArray(new SampleStage[0]), blockSize);
+    }
+
+    int stageCount() {
+        return stages.length;
+    }
+
+    void process(float[] samples, int length) {
+        SampleStage[] stages = this.stages;
+        for (int from = 0; from < length; from += TILE) {
+            int to = Math.min(length, from + TILE);
+            for (SampleStage stage : stages) {
+                stage.processBlock(samples, from, to);
+            }
+        }
+    }
+
+    // Process 16-bit PCM in place, block by block, through the reusable float buffer
+    void process(ShortBuffer pcm) {
+        while (pcm.hasRemaining()) {
+            int start = pcm.position();
+            int length = Math.min(block.length, pcm.remaining());
+            for (int i = 0; i < length; i++) {
+                block[i] = pcm.get(start + i) / 32768f;
+            }
+            process(block, length);
+            for (int i = 0; i < length; i++) {
+                float clipped = Math.max(-1f, Math.min(1f, block[i]));
+                pcm.put(start + i, (short) (clipped * 32767f));
+            }
+            pcm.position(start + length);
+        }
+    }
+}
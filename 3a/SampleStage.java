@@ -0,0 +1,74 @@
+// SampleStage.java
+// One audio processing step, applied sample by sample
+interface SampleStage {
+    float process(float sample);
+
+    // A stage with the same settings and no history, for a pipeline of its own
+    SampleStage copy();
+
+    // Process samples [from, to) of a block in place
+    default void processBlock(float[] block, int from, int to) {
+        for (int i = from; i < to; i++) {
+            block[i] = process(block[i]);
+        }
+    }
+}
+
+// Simple bass boost: adds a low-passed copy of the signal back in
+class EqualizerStage implements SampleStage {
+    private final float smoothing;
+    private final float boost;
+    private float low;
+
+    EqualizerStage(float smoothing, float boost) {
+        this.smoothing = smoothing;
+        this.boost = boost;
+    }
+
+    @Override
+    public SampleStage copy() {
+        return new EqualizerStage(smoothing, boost);
+    }
+
+    @Override
+    public float process(float sample) {
+        low += smoothing * (sample - low);
+        return sample + boost * low;
+    }
+
+    @Override
+    public void processBlock(float[] block, int from, int to) {
+        float low = this.low;
+        for (int i = from; i < to; i++) {
+            float sample = block[i];
+            low += smoothing * (sample - low);
+            block[i] = sample + boost * low;
+        }
+        this.low = low;
+    }
+}
+
+class GainStage implements SampleStage {
+    private final float gain;
+
+    GainStage(float gain) {
+        this.gain = gain;
+    }
+
+    @Override
+    public SampleStage copy() {
+        return new GainStage(gain);
+    }
+
+    @Override
+    public float process(float sample) {
+        return sample * gain;
+    }
+
+    @Override
+    public void processBlock(float[] block, int from, int to) {
+        for (int i = from; i < to; i++) {
+            block[i] *= gain;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// SimulatedSourceResolver.java
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Local stand-in for real stream sources: waits a per-type latency, then returns a chunk
+class SimulatedSourceResolver implements SourceResolver {
+    private static final int CHUNK_BYTES = 16 * 1024;
+
+    private final long localMillis;
+    private final long onlineMillis;
+    private final long radioMillis;
+
+    SimulatedSourceResolver(long localMillis, long onlineMillis, long radioMillis) {
+        this.localMillis = localMillis;
+        this.onlineMillis = onlineMillis;
+        this.radioMillis = radioMillis;
+    }
+
+    @Override
+    public ResolvedTrack resolve(MusicSource source) throws InterruptedException {
+        long latency = source instanceof LocalFileMusic ? localMillis
+                : source instanceof OnlineStreamingMusic ? onlineMillis
+                : source instanceof RadioStationMusic ? radioMillis
+                : 0;
+        TimeUnit.MILLISECONDS.sleep(latency);
+        return new ResolvedTrack(source, ByteBuffer.allocate(CHUNK_BYTES), System.nanoTime());
+    }
+}
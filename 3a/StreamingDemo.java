@@ -0,0 +1,37 @@
+// StreamingDemo.java
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Plays an OnlineStreamingMusic source from the loopback server at a fixed bitrate and
+// reports jitter-buffer metrics.
+// Usage: java StreamingDemo [seconds] [networkKBps] [jitterMillis]
+public class StreamingDemo {
+    private static final int PLAYBACK_BYTES_PER_SECOND = 16 * 1024; // 128 kbps
+    private static final int TICK_MILLIS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int networkBytesPerSecond = (args.length > 1 ? Integer.parseInt(args[1]) : 64) * 1024;
+        long jitter = args.length > 2 ? Long.parseLong(args[2]) : 40;
+
+        try (LoopbackAudioServer server = new LoopbackAudioServer(networkBytesPerSecond,
+                (long) PLAYBACK_BYTES_PER_SECOND * (seconds + 2), jitter)) {
+            OnlineStreamingMusic music = new OnlineStreamingMusic(server.url());
+            music.startStreaming(new HttpByteSource(server.url()), 256 * 1024);
+            music.play();
+
+            // Player: drains one tick of audio every 20ms and never waits on the network
+            ByteBuffer tick = ByteBuffer.allocate(PLAYBACK_BYTES_PER_SECOND * TICK_MILLIS / 1000);
+            long played = 0;
+            for (int i = 0; i < seconds * 1000 / TICK_MILLIS; i++) {
+                tick.clear();
+                int n = music.getStream().read(tick);
+                played += Math.max(0, n);
+                TimeUnit.MILLISECONDS.sleep(TICK_MILLIS);
+            }
+            System.out.println("Played " + played + " bytes");
+            System.out.println("Stream metrics: " + music.getStream().metricsSummary());
+            music.stopStreaming();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// ByteSource.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Pluggable source of stream bytes (network connection, loopback stand-in, ...)
+interface ByteSource extends AutoCloseable {
+    // Reads into dst; returns the number of bytes read, or -1 at end of stream
+    int read(ByteBuffer dst) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,43 @@
+// DecoratorPipelineBenchmark.java
+// Nested (one pass per decorator) vs fused (one pass for the whole stack) processing
+// for stacks of 1 to 10 decorators.
+// Usage: java DecoratorPipelineBenchmark [blockSize] [blocks]
+public class DecoratorPipelineBenchmark {
+    public static void main(String[] args) {
+        int blockSize = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int blocks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        float[] block = new float[blockSize];
+        float[] input = new float[blockSize];
+        for (int i = 0; i < blockSize; i++) {
+            input[i] = (float) Math.sin(i * 0.01);
+        }
+        MusicSource source = new LocalFileMusic("song.mp3");
+
+        System.out.println("decorators   nested ns/sample   fused ns/sample   speedup");
+        for (int depth = 1; depth <= 10; depth++) {
+            MusicPlayer player = new BasicMusicPlayer(source);
+            for (int d = 0; d < depth; d++) {
+                player = d % 2 == 0 ? new EqualizerDecorator(player) : new VolumeControlDecorator(player, 0.99f);
+            }
+            SamplePipeline fused = SamplePipeline.flatten(player, blockSize);
+
+            MusicPlayer nestedPlayer = player;
+            Runnable nested = () -> nestedPlayer.process(block, blockSize);
+            Runnable fusedRun = () -> fused.process(block, blockSize);
+            time(nested, input, block, blocks); // warm-up
+            time(fusedRun, input, block, blocks);
+            double nestedNs = time(nested, input, block, blocks) / ((double) blocks * blockSize);
+            double fusedNs = time(fusedRun, input, block, blocks) / ((double) blocks * blockSize);
+            System.out.printf("%10d   %16.3f   %15.3f   %6.2fx%n", depth, nestedNs, fusedNs, nestedNs / fusedNs);
+        }
+    }
+
+    private static long time(Runnable pass, float[] input, float[] block, int blocks) {
+        long start = System.nanoTime();
+        for (int b = 0; b < blocks; b++) {
+            System.arraycopy(input, 0, block, 0, block.length); // fresh input each block
+            pass.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
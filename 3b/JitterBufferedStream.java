@@ -0,0 +1,167 @@
+// JitterBufferedStream.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Streaming client with a jitter buffer: a background thread keeps a ring buffer filled
+// from a ByteSource, picking each read size from the throughput it has measured, and the
+// player drains the ring without ever blocking on I/O.
+class JitterBufferedStream implements AutoCloseable {
+    static final int MIN_CHUNK = 4 * 1024;
+    static final int MAX_CHUNK = 256 * 1024;
+    private static final long TARGET_READ_NANOS = 50_000_000L; // aim for ~50ms per source read
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final ByteSource source;
+    private final ByteRingBuffer ring;
+    private final ByteBuffer chunk = ByteBuffer.allocateDirect(MAX_CHUNK);
+    private volatile boolean closed;
+    private volatile boolean endOfStream;
+    private volatile IOException failure;
+    private volatile int chunkSize;
+    private volatile double bytesPerSecond;
+    private boolean started;
+    private boolean starving;
+
+    // Metrics
+    private final LongAdder underruns = new LongAdder();
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder bytesFetched = new LongAdder();
+    private final LongAdder totalRefillNanos = new LongAdder();
+    private final LongAccumulator maxRefillNanos = new LongAccumulator(Math::max, 0);
+
+    // bufferBytes must be a power of two that holds at least two minimum-size chunks
+    JitterBufferedStream(ByteSource source, int bufferBytes) {
+        if (bufferBytes < 2 * MIN_CHUNK) {
+            throw new IllegalArgumentException("Jitter buffer must be at least " + 2 * MIN_CHUNK + " bytes: " + bufferBytes);
+        }
+        this.source = source;
+        this.ring = new ByteRingBuffer(bufferBytes);
+        // Never ask for more than half the ring, or the fill thread could wait forever for free space
+        this.chunkSize = Math.min(16 * 1024, ring.capacity() / 2);
+        BackgroundThreads.start("jitter-buffer-fill", this::fillLoop);
+    }
+
+    // Non-blocking: copies whatever is buffered; returns -1 once the stream has ended and drained
+    int read(ByteBuffer dst) throws IOException {
+        int count = ring.read(dst);
+        if (count > 0) {
+            started = true;
+            starving = false;
+            return count;
+        }
+        if (endOfStream) {
+            if (ring.available() > 0) {
+                // The fill thread wrote its last bytes between our read and its setting the flag
+                return dst.hasRemaining() ? read(dst) : 0;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return -1;
+        }
+        if (started && !starving && dst.hasRemaining()) {
+            starving = true; // count each starvation episode once; initial buffering is not an underrun
+            underruns.increment();
+        }
+        return 0;
+    }
+
+    int bufferedBytes() {
+        return ring.available();
+    }
+
+    boolean isEndOfStream() {
+        return endOfStream && ring.available() == 0;
+    }
+
+    long getUnderruns() {
+        return underruns.sum();
+    }
+
+    long getBytesFetched() {
+        return bytesFetched.sum();
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    double getMeasuredBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    double getAverageRefillMillis() {
+        long count = refills.sum();
+        return count == 0 ? 0 : totalRefillNanos.sum() / 1e6 / count;
+    }
+
+    double getMaxRefillMillis() {
+        return maxRefillNanos.get() / 1e6;
+    }
+
+    String metricsSummary() {
+        return String.format("underruns=%d refills=%d refill_avg_ms=%.2f refill_max_ms=%.2f chunk_bytes=%d "
+                        + "throughput_kbps=%.0f buffered_bytes=%d",
+                getUnderruns(), refills.sum(), getAverageRefillMillis(), getMaxRefillMillis(), chunkSize,
+                bytesPerSecond * 8 / 1000, bufferedBytes());
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        source.close();
+    }
+
+    private void fillLoop() {
+        try {
+            while (!closed) {
+                int size = chunkSize;
+                if (ring.free() < size) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS); // buffer full, let the player catch up
+                    continue;
+                }
+                chunk.clear().limit(size);
+                long start = System.nanoTime();
+                int read = source.read(chunk);
+                long elapsed = System.nanoTime() - start;
+                if (read < 0) {
+                    break;
+                }
+                if (read == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS); // nothing ready yet; back off instead of spinning
+                    continue;
+                }
+                chunk.flip();
+                while (chunk.hasRemaining()) {
+                    ring.write(chunk); // fits: free space was checked above and only we write
+                }
+                refills.increment();
+                bytesFetched.add(read);
+                totalRefillNanos.add(elapsed);
+                maxRefillNanos.accumulate(elapsed);
+                adapt(read, elapsed);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                failure = e;
+            }
+        } finally {
+            endOfStream = true;
+        }
+    }
+
+    // Exponentially smoothed throughput decides how much to ask for on the next read
+    private void adapt(int read, long elapsedNanos) {
+        if (read == 0 || elapsedNanos <= 0) {
+            return;
+        }
+        double sample = read * 1e9 / elapsedNanos;
+        bytesPerSecond = bytesPerSecond == 0 ? sample : 0.8 * bytesPerSecond + 0.2 * sample;
+        long wanted = (long) (bytesPerSecond * TARGET_READ_NANOS / 1e9);
+        int size = Integer.highestOneBit((int) Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, wanted)));
+        chunkSize = Math.min(size, ring.capacity() / 2);
+    }
+}
@@ -0,0 +1,59 @@
+// MappedChunkReader.java
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a file as fixed-size chunks that are read-only slices of mapped regions,
+// so audio bytes reach the player without being copied onto the heap.
+class MappedChunkReader implements AutoCloseable {
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedRegionCache cache;
+    private final int chunkBytes;
+    private final long size;
+    private long position;
+
+    MappedChunkReader(Path path, MappedRegionCache cache, int chunkBytes) throws IOException {
+        if (MappedRegionCache.REGION_BYTES % chunkBytes != 0) {
+            throw new IllegalArgumentException("Chunk size must divide the region size: " + chunkBytes);
+        }
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.cache = cache;
+        this.chunkBytes = chunkBytes;
+        this.size = channel.size();
+    }
+
+    // Next chunk (shorter at the end of the file), or null at end of file
+    ByteBuffer nextChunk() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        long regionIndex = position / MappedRegionCache.REGION_BYTES;
+        int offset = (int) (position % MappedRegionCache.REGION_BYTES);
+        MappedByteBuffer region = cache.region(path, channel, regionIndex);
+        int length = Math.min(chunkBytes, region.capacity() - offset);
+        if (length <= 0) {
+            position = size; // the file was truncated under us
+            return null;
+        }
+        position += length;
+        return region.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    void seek(long position) {
+        this.position = Math.max(0, Math.min(position, size));
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // mappings stay valid after the channel is closed
+    }
+}
@@ -0,0 +1,102 @@
+// MappedReadBenchmark.java
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Read throughput of MappedChunkReader vs FileChannel.read vs InputStream.
+// Usage: java MappedReadBenchmark [file] [sizeMB]  (creates a temporary file if none is given)
+public class MappedReadBenchmark {
+    private static final int CHUNK = 64 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        long sizeMb = args.length > 1 ? Long.parseLong(args[1]) : 1024;
+        Path file;
+        boolean temporary = args.length == 0;
+        if (temporary) {
+            file = Files.createTempFile("audio", ".raw");
+            writeFile(file, sizeMb * 1024 * 1024);
+        } else {
+            file = Paths.get(args[0]);
+        }
+        long size = Files.size(file);
+        MappedRegionCache cache = new MappedRegionCache(size); // large enough to keep the whole file hot
+
+        for (int round = 0; round < 3; round++) { // the first round warms up the JIT and page cache
+            long checksum = 0;
+            long start = System.nanoTime();
+            try (MappedChunkReader reader = new MappedChunkReader(file, cache, CHUNK)) {
+                for (ByteBuffer chunk = reader.nextChunk(); chunk != null; chunk = reader.nextChunk()) {
+                    checksum += consume(chunk);
+                }
+            }
+            long mapped = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    checksum += consume(buffer);
+                    buffer.clear();
+                }
+            }
+            long channelRead = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file), CHUNK)) {
+                byte[] bytes = new byte[CHUNK];
+                int n;
+                while ((n = in.read(bytes)) > 0) {
+                    checksum += consume(ByteBuffer.wrap(bytes, 0, n));
+                }
+            }
+            long stream = System.nanoTime() - start;
+
+            if (round > 0) {
+                System.out.printf("round %d: mapped %,.0f MB/s, FileChannel.read %,.0f MB/s, InputStream %,.0f MB/s (checksum %d)%n",
+                        round, mb(size, mapped), mb(size, channelRead), mb(size, stream), checksum);
+            }
+        }
+        System.out.printf("Region cache: %d hits, %d misses, %d MB mapped%n",
+                cache.getHits(), cache.getMisses(), cache.getMappedBytes() >> 20);
+        if (temporary) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Touch every 8 bytes, as a player consuming samples would
+    private static long consume(ByteBuffer chunk) {
+        long sum = 0;
+        int limit = chunk.limit() - 7;
+        for (int i = chunk.position(); i < limit; i += 8) {
+            sum += chunk.getLong(i);
+        }
+        return sum;
+    }
+
+    private static double mb(long bytes, long nanos) {
+        return bytes / 1048576.0 / (nanos / 1e9);
+    }
+
+    private static void writeFile(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer block = ByteBuffer.allocateDirect(1 << 20);
+            for (int i = 0; i < block.capacity(); i++) {
+                block.put(i, (byte) i);
+            }
+            for (long written = 0; written < bytes; written += block.capacity()) {
+                block.clear();
+                block.limit((int) Math.min(block.capacity(), bytes - written));
+                while (block.hasRemaining()) {
+                    channel.write(block);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+// PlaybackScheduler.java
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps a shuffle-aware queue of upcoming sources and resolves the next few in the
+// background, so the next track is usually ready the moment the current one ends.
+class PlaybackScheduler implements AutoCloseable {
+    private final ArrayDeque<MusicSource> upcoming = new ArrayDeque<>();
+    private final Map<MusicSource, CompletableFuture<ResolvedTrack>> prefetched = new IdentityHashMap<>();
+    private final SourceResolver resolver;
+    private final int prefetchDepth;
+    private final ExecutorService executor = BackgroundThreads.newExecutor("source-prefetch");
+    private final Random random;
+    private boolean shuffle;
+
+    // Metrics
+    private final LongAdder tracksPlayed = new LongAdder();
+    private final LongAdder prefetchHits = new LongAdder();
+    private final LongAdder totalTimeToFirstByte = new LongAdder();
+    private final LongAccumulator maxTimeToFirstByte = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalGap = new LongAdder();
+    private final LongAccumulator maxGap = new LongAccumulator(Math::max, 0);
+
+    PlaybackScheduler(SourceResolver resolver, int prefetchDepth, long seed) {
+        this.resolver = resolver;
+        this.prefetchDepth = prefetchDepth;
+        this.random = new Random(seed);
+    }
+
+    synchronized void enqueue(MusicSource source) {
+        if (shuffle && !upcoming.isEmpty()) {
+            // Insert at a random position after the prefetch window
+            List<MusicSource> order = new ArrayList<>(upcoming);
+            int from = Math.min(prefetchDepth, order.size());
+            order.add(from + random.nextInt(order.size() - from + 1), source);
+            upcoming.clear();
+            upcoming.addAll(order);
+        } else {
+            upcoming.add(source);
+        }
+        prefetch();
+    }
+
+    // Turning shuffle on reorders everything after the tracks already being prefetched
+    synchronized void setShuffle(boolean shuffle) {
+        this.shuffle = shuffle;
+        if (shuffle && upcoming.size() > prefetchDepth) {
+            List<MusicSource> order = new ArrayList<>(upcoming);
+            Collections.shuffle(order.subList(prefetchDepth, order.size()), random);
+            upcoming.clear();
+            upcoming.addAll(order);
+        }
+    }
+
+    synchronized boolean hasNext() {
+        return !upcoming.isEmpty();
+    }
+
+    // Wait for the next track to be ready, then play it; returns false when the queue is empty
+    boolean playNext() {
+        long requested = System.nanoTime();
+        MusicSource source;
+        CompletableFuture<ResolvedTrack> pending;
+        synchronized (this) {
+            source = upcoming.poll();
+            if (source == null) {
+                return false;
+            }
+            pending = prefetched.remove(source);
+            if (pending != null && pending.isDone()) {
+                prefetchHits.increment();
+            } else if (pending == null) {
+                pending = start(source);
+            }
+            prefetch();
+        }
+        ResolvedTrack track;
+        try {
+            track = pending.join();
+        } catch (CompletionException e) {
+            System.out.println("Skipping track that failed to load: " + e.getCause());
+            return true;
+        }
+        long ready = System.nanoTime();
+        // Time to first byte counts from when the track was needed, or 0 if it was already there
+        long ttfb = Math.max(0, track.resolvedAt - requested);
+        long gap = ready - requested;
+        totalTimeToFirstByte.add(ttfb);
+        maxTimeToFirstByte.accumulate(ttfb);
+        totalGap.add(gap);
+        maxGap.accumulate(gap);
+        tracksPlayed.increment();
+        track.source.play();
+        return true;
+    }
+
+    long getTracksPlayed() {
+        return tracksPlayed.sum();
+    }
+
+    long getPrefetchHits() {
+        return prefetchHits.sum();
+    }
+
+    double getAverageTimeToFirstByteMillis() {
+        long played = tracksPlayed.sum();
+        return played == 0 ? 0 : totalTimeToFirstByte.sum() / 1e6 / played;
+    }
+
+    double getMaxTimeToFirstByteMillis() {
+        return maxTimeToFirstByte.get() / 1e6;
+    }
+
+    double getAverageGapMillis() {
+        long played = tracksPlayed.sum();
+        return played == 0 ? 0 : totalGap.sum() / 1e6 / played;
+    }
+
+    double getMaxGapMillis() {
+        return maxGap.get() / 1e6;
+    }
+
+    String metricsSummary() {
+        return String.format("tracks=%d prefetch_hits=%d ttfb_avg_ms=%.2f ttfb_max_ms=%.2f gap_avg_ms=%.2f gap_max_ms=%.2f",
+                getTracksPlayed(), getPrefetchHits(), getAverageTimeToFirstByteMillis(),
+                getMaxTimeToFirstByteMillis(), getAverageGapMillis(), getMaxGapMillis());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Make sure the first prefetchDepth upcoming sources are being resolved
+    private void prefetch() {
+        Iterator<MusicSource> it = upcoming.iterator();
+        for (int i = 0; i < prefetchDepth && it.hasNext(); i++) {
+            MusicSource source = it.next();
+            if (!prefetched.containsKey(source)) {
+                prefetched.put(source, start(source));
+            }
+        }
+    }
+
+    private CompletableFuture<ResolvedTrack> start(MusicSource source) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return resolver.resolve(source);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
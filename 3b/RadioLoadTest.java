@@ -0,0 +1,112 @@
+// RadioLoadTest.java
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Connects many listeners to a local RadioBroadcaster and reports the broadcaster's CPU cost per listener.
+// The listeners run in a child JVM so that each process stays within its own open-file limit.
+// Usage: java RadioLoadTest [listeners] [stations] [seconds] [slowListeners]
+public class RadioLoadTest {
+    private static final int BITRATE = 128_000;
+    private static final long CHUNK_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--listeners")) {
+            runListeners(args);
+            return;
+        }
+        int listeners = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int stationCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int slow = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        try (RadioBroadcaster broadcaster = new RadioBroadcaster(0, BITRATE, CHUNK_MILLIS)) {
+            for (int s = 0; s < stationCount; s++) {
+                new RadioStationMusic("Station " + s).broadcastOn(broadcaster);
+            }
+            String java = ProcessHandle.current().info().command().orElse("java");
+            Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "RadioLoadTest",
+                    "--listeners", String.valueOf(broadcaster.port()), String.valueOf(listeners),
+                    String.valueOf(stationCount), String.valueOf(slow))
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            BufferedReader childOut = new BufferedReader(new InputStreamReader(child.getInputStream()));
+            System.out.println(childOut.readLine()); // "connected ..."
+
+            while (broadcaster.listenerCount() < listeners) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            long cpuStart = broadcaster.cpuTimeNanos();
+            long bytesStart = broadcaster.getBytesSent();
+            long wallStart = System.nanoTime();
+            TimeUnit.SECONDS.sleep(seconds);
+            long wall = System.nanoTime() - wallStart;
+            long cpu = broadcaster.cpuTimeNanos() - cpuStart;
+            long bytes = broadcaster.getBytesSent() - bytesStart;
+            int remaining = broadcaster.listenerCount();
+            child.destroy();
+            child.waitFor();
+
+            double wallSeconds = wall / 1e9;
+            System.out.printf("Listeners: %,d (%d stations, %d deliberately slow), chunk %d bytes every %d ms%n",
+                    listeners, stationCount, slow, broadcaster.chunkBytes(), CHUNK_MILLIS);
+            System.out.printf("Broadcaster CPU: %.1f%% of one core, %.2f us per listener per second%n",
+                    cpu * 100.0 / wall, cpu / 1e3 / wallSeconds / listeners);
+            System.out.printf("Sent %,.1f MB/s; dropped slow listeners: %d; still connected: %,d%n",
+                    bytes / 1e6 / wallSeconds, broadcaster.getDroppedListeners(), remaining);
+        }
+    }
+
+    // Child process: open the listeners, then read and discard until killed. Slow listeners never read.
+    private static void runListeners(String[] args) throws IOException {
+        int port = Integer.parseInt(args[1]);
+        int count = Integer.parseInt(args[2]);
+        int stationCount = Integer.parseInt(args[3]);
+        int slow = Integer.parseInt(args[4]);
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        Selector selector = Selector.open();
+        List<SocketChannel> idle = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open();
+            boolean isSlow = i < slow;
+            if (isSlow) {
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            }
+            channel.connect(address);
+            channel.write(ByteBuffer.wrap(("Station " + (i % stationCount) + "\n").getBytes(StandardCharsets.UTF_8)));
+            channel.configureBlocking(false);
+            if (isSlow) {
+                idle.add(channel);
+            } else {
+                channel.register(selector, SelectionKey.OP_READ);
+            }
+        }
+        System.out.println("connected " + count + " listeners (" + idle.size() + " slow)");
+        System.out.flush();
+        ByteBuffer sink = ByteBuffer.allocateDirect(64 * 1024);
+        while (true) {
+            selector.select();
+            Iterator<SelectionKey> ready = selector.selectedKeys().iterator();
+            while (ready.hasNext()) {
+                SelectionKey key = ready.next();
+                ready.remove();
+                sink.clear();
+                if (((SocketChannel) key.channel()).read(sink) < 0) {
+                    key.cancel();
+                    key.channel().close();
+                }
+            }
+        }
+    }
+}
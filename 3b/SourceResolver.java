@@ -0,0 +1,5 @@
+// SourceResolver.java
+// Opens a music source and fetches its first chunk (may block on I/O)
+interface SourceResolver {
+    ResolvedTrack resolve(MusicSource source) throws Exception;
+}
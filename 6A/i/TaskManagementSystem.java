@@ -1,8 +1,14 @@
 package i;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.Scanner;
 
+import paging.PagedWriter;
+import tasks.BatchMode;
+import tasks.CommandReader;
+import tasks.TaskStore;
+
 public class TaskManagementSystem {
     // Task class to store task details
     static class Task {
@@ -21,8 +27,18 @@ public class TaskManagementSystem {
         }
     }
 
-    public static void main(String[] args) {
-        ArrayList<Task> tasks = new ArrayList<>();
+    private static final PagedWriter.LineFormatter<TaskStore.Entry<Task>> TASK_LINE = (index, entry, line) ->
+            line.append(entry.id()).append(". ").append(entry.value().getDescription());
+
+    // Usage: java i.TaskManagementSystem [--batch [file]]
+    public static void main(String[] args) throws IOException {
+        if (BatchMode.requested(args)) {
+            try (CommandReader in = BatchMode.input(args)) {
+                runBatch(in, BatchMode.output());
+            }
+            return;
+        }
+        TaskStore<Task> tasks = new TaskStore<>();
         Scanner scanner = new Scanner(System.in);
         int choice;
 
@@ -42,37 +58,37 @@ public class TaskManagementSystem {
                     // Add a new task
                     System.out.print("Enter task description: ");
                     String description = scanner.nextLine();
-                    tasks.add(new Task(description));
-                    System.out.println("Task added successfully.");
+                    long id = tasks.add(new Task(description));
+                    System.out.println("Task added successfully with id " + id + ".");
                     break;
 
                 case 2:
                     // Update an existing task
-                    System.out.print("Enter the task number to update: ");
-                    int updateIndex = scanner.nextInt();
+                    System.out.print("Enter the task id to update: ");
+                    long updateId = scanner.nextLong();
                     scanner.nextLine();  // Consume newline left-over
 
-                    if (updateIndex >= 0 && updateIndex < tasks.size()) {
+                    Task task = tasks.get(updateId);
+                    if (task != null) {
                         System.out.print("Enter the new task description: ");
                         String newDescription = scanner.nextLine();
-                        tasks.get(updateIndex).setDescription(newDescription);
+                        task.setDescription(newDescription);
                         System.out.println("Task updated successfully.");
                     } else {
-                        System.out.println("Invalid task number.");
+                        System.out.println("Invalid task id.");
                     }
                     break;
 
                 case 3:
                     // Remove a task
-                    System.out.print("Enter the task number to remove: ");
-                    int removeIndex = scanner.nextInt();
+                    System.out.print("Enter the task id to remove: ");
+                    long removeId = scanner.nextLong();
                     scanner.nextLine();  // Consume newline left-over
 
-                    if (removeIndex >= 0 && removeIndex < tasks.size()) {
-                        tasks.remove(removeIndex);
+                    if (tasks.remove(removeId) != null) {
                         System.out.println("Task removed successfully.");
                     } else {
-                        System.out.println("Invalid task number.");
+                        System.out.println("Invalid task id.");
                     }
                     break;
 
@@ -82,9 +98,7 @@ public class TaskManagementSystem {
                     if (tasks.isEmpty()) {
                         System.out.println("No tasks available.");
                     } else {
-                        for (int i = 0; i < tasks.size(); i++) {
-                            System.out.println((i) + ". " + tasks.get(i).getDescription());
-                        }
+                        PagedWriter.print(tasks.entries(), TASK_LINE);
                     }
                     break;
 
@@ -100,4 +114,58 @@ public class TaskManagementSystem {
 
         scanner.close();
     }
+
+    // Same commands as the menu, without prompts, until option 5 or the end of input
+    static void runBatch(CommandReader in, PrintWriter out) throws IOException {
+        TaskStore<Task> tasks = new TaskStore<>();
+        try {
+            int commands = 0;
+            while (in.hasNext()) {
+                int choice = in.nextInt();
+                switch (choice) {
+                    case 1:
+                        long id = tasks.add(new Task(in.nextLine()));
+                        out.println("Task added successfully with id " + id + ".");
+                        break;
+
+                    case 2:
+                        // Like the menu, a description line follows only when the id exists
+                        Task task = tasks.get(in.nextLong());
+                        if (task != null) {
+                            task.setDescription(in.nextLine());
+                            out.println("Task updated successfully.");
+                        } else {
+                            out.println("Invalid task id.");
+                        }
+                        break;
+
+                    case 3:
+                        out.println(tasks.remove(in.nextLong()) != null ? "Task removed successfully." : "Invalid task id.");
+                        break;
+
+                    case 4:
+                        out.println();
+                        out.println("Task List:");
+                        if (tasks.isEmpty()) {
+                            out.println("No tasks available.");
+                        } else {
+                            PagedWriter.write(tasks.entries(), TASK_LINE, out, PagedWriter.DEFAULT_PAGE_SIZE);
+                        }
+                        break;
+
+                    case 5:
+                        out.println("Exiting Task Management System.");
+                        return;
+
+                    default:
+                        out.println("Invalid choice. Please try again.");
+                }
+                if (++commands % BatchMode.BATCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        } finally {
+            out.flush(); // also keeps the output up to a bad command
+        }
+    }
 }
\ No newline at end of file
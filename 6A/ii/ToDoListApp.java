@@ -1,54 +1,114 @@
 package ii;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
+import paging.PagedWriter;
+import tasks.BatchMode;
+import tasks.CommandReader;
+import tasks.TaskStore;
+
 public class ToDoListApp {
-    private ArrayList<String> tasks;
+    private TaskStore<String> tasks;
+    private PrintWriter out;
 
     public ToDoListApp() {
-        tasks = new ArrayList<>();
+        this(new PrintWriter(System.out, true));
+    }
+
+    // Messages go to the given writer; it is only flushed by displayTasks and the caller
+    public ToDoListApp(PrintWriter out) {
+        tasks = new TaskStore<>();
+        this.out = out;
     }
 
-    // Add a task to the list
-    public void addTask(String task) {
-        tasks.add(task);
-        System.out.println("Task added: " + task);
+    // Add a task to the list and return its id
+    public long addTask(String task) {
+        long id = tasks.add(task);
+        out.println("Task " + id + " added: " + task);
+        return id;
     }
 
-    // Update a task's description by index
-    public void updateTask(int index, String newTask) {
-        if (index >= 0 && index < tasks.size()) {
-            tasks.set(index, newTask);
-            System.out.println("Task at index " + index + " updated to: " + newTask);
+    // Update a task's description by id
+    public void updateTask(long id, String newTask) {
+        if (tasks.update(id, newTask)) {
+            out.println("Task " + id + " updated to: " + newTask);
         } else {
-            System.out.println("Invalid index. Please try again.");
+            out.println("Invalid id. Please try again.");
         }
     }
 
-    // Remove a task by its index
-    public void removeTask(int index) {
-        if (index >= 0 && index < tasks.size()) {
-            String removedTask = tasks.remove(index);
-            System.out.println("Task removed: " + removedTask);
+    // Remove a task by its id
+    public void removeTask(long id) {
+        String removedTask = tasks.remove(id);
+        if (removedTask != null) {
+            out.println("Task removed: " + removedTask);
         } else {
-            System.out.println("Invalid index. Please try again.");
+            out.println("Invalid id. Please try again.");
         }
     }
 
     // Display all tasks
     public void displayTasks() {
         if (tasks.isEmpty()) {
-            System.out.println("No tasks in the list.");
+            out.println("No tasks in the list.");
         } else {
-            System.out.println("To-Do List:");
-            for (int i = 0; i < tasks.size(); i++) {
-                System.out.println(i + ": " + tasks.get(i));
+            out.println("To-Do List:");
+            try {
+                PagedWriter.write(tasks.entries(), (index, entry, line) -> line.append(entry.id()).append(": ").append(entry.value()),
+                        out, PagedWriter.DEFAULT_PAGE_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
     }
 
-    public static void main(String[] args) {
+    // Same commands as the menu, without prompts, until option 5 or the end of input
+    public void runBatch(CommandReader in) {
+        try {
+            int commands = 0;
+            while (in.hasNext()) {
+                int choice = in.nextInt();
+                switch (choice) {
+                    case 1:
+                        addTask(in.nextLine());
+                        break;
+                    case 2:
+                        long updateId = in.nextLong();
+                        updateTask(updateId, in.nextLine());
+                        break;
+                    case 3:
+                        removeTask(in.nextLong());
+                        break;
+                    case 4:
+                        displayTasks();
+                        break;
+                    case 5:
+                        out.println("Exiting To-Do List application.");
+                        return;
+                    default:
+                        out.println("Invalid choice. Please try again.");
+                        break;
+                }
+                if (++commands % BatchMode.BATCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        } finally {
+            out.flush(); // also keeps the output up to a bad command
+        }
+    }
+
+    // Usage: java ii.ToDoListApp [--batch [file]]
+    public static void main(String[] args) throws IOException {
+        if (BatchMode.requested(args)) {
+            try (CommandReader in = BatchMode.input(args)) {
+                new ToDoListApp(BatchMode.output()).runBatch(in);
+            }
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         ToDoListApp toDoList = new ToDoListApp();
 
@@ -70,17 +130,17 @@ public class ToDoListApp {
                     toDoList.addTask(task);
                     break;
                 case 2:
-                    System.out.print("Enter task index to update: ");
-                    int updateIndex = scanner.nextInt();
+                    System.out.print("Enter task id to update: ");
+                    long updateId = scanner.nextLong();
                     scanner.nextLine(); // Consume newline
                     System.out.print("Enter new task description: ");
                     String newTask = scanner.nextLine();
-                    toDoList.updateTask(updateIndex, newTask);
+                    toDoList.updateTask(updateId, newTask);
                     break;
                 case 3:
-                    System.out.print("Enter task index to remove: ");
-                    int removeIndex = scanner.nextInt();
-                    toDoList.removeTask(removeIndex);
+                    System.out.print("Enter task id to remove: ");
+                    long removeId = scanner.nextLong();
+                    toDoList.removeTask(removeId);
                     break;
                 case 4:
                     toDoList.displayTasks();
@@ -0,0 +1,46 @@
+package iii;
+
+import java.util.LinkedHashSet;
+
+// Concurrent set of recently seen ids with a fixed capacity. Ids are spread over lock
+// stripes; each stripe forgets its oldest ids first once it is full.
+public class BoundedIdSet {
+    private static final int STRIPES = 64;
+
+    private final LinkedHashSet<String>[] stripes;
+    private final int perStripe;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BoundedIdSet(int capacity) {
+        this.perStripe = Math.max(1, capacity / STRIPES);
+        this.stripes = new LinkedHashSet[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashSet<>();
+        }
+    }
+
+    // Returns false if the id was already present
+    public boolean add(String id) {
+        int h = id.hashCode();
+        LinkedHashSet<String> stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            if (!stripe.add(id)) {
+                return false;
+            }
+            if (stripe.size() > perStripe) {
+                stripe.remove(stripe.iterator().next());
+            }
+            return true;
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (LinkedHashSet<String> stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+        return total;
+    }
+}
@@ -19,6 +19,10 @@ public class CustomerSupportTicketSystem {
         ticketQueue.displayPendingTickets();
     }
 
+    public int getPendingCount() {
+        return ticketQueue.pendingCount();
+    }
+
     public static void main(String[] args) {
         TicketQueue ticketQueue = new LinkedListTicketQueue();
         CustomerSupportTicketSystem ticketSystem = new CustomerSupportTicketSystem(ticketQueue);
@@ -37,5 +41,13 @@ public class CustomerSupportTicketSystem {
 
         // Process next ticket
         ticketSystem.processNextTicket();
+
+        // Priority queue: the urgent ticket is handled first even though it arrived last
+        CustomerSupportTicketSystem prioritySystem = new CustomerSupportTicketSystem(new PriorityTicketQueue());
+        prioritySystem.addTicket(new Ticket("TCK-004", "Feature request", Priority.LOW));
+        prioritySystem.addTicket(new Ticket("TCK-005", "Password reset"));
+        prioritySystem.addTicket(new Ticket("TCK-006", "Site is down", Priority.URGENT));
+        prioritySystem.displayPendingTickets();
+        prioritySystem.processNextTicket();
     }
 }
\ No newline at end of file
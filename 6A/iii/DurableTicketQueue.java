@@ -0,0 +1,420 @@
+package iii;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.zip.CRC32;
+
+import paging.PagedWriter;
+
+// FIFO ticket queue that survives crashes.
+// Tickets are appended to a segmented log (one file per segment, named by the first sequence
+// number in it) and forced to disk once per batch of syncEvery tickets, or at the latest after
+// MAX_SYNC_DELAY_MILLIS. Processing is acknowledged by a persisted offset: on restart only
+// tickets at or after the offset are replayed, and segments entirely below it are deleted.
+// Delivery is at-least-once: a ticket handled after the last persisted ack is handled again.
+// Handlers run outside the queue lock; the ack only moves past a ticket once it was handled.
+public class DurableTicketQueue implements TicketQueue, AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    private static final long MAX_SYNC_DELAY_MILLIS = 100;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_BYTES = 8; // length + crc
+
+    private static final class Entry {
+        final long sequence;
+        final Ticket ticket;
+
+        Entry(long sequence, Ticket ticket) {
+            this.sequence = sequence;
+            this.ticket = ticket;
+        }
+    }
+
+    private static final class Segment {
+        final long baseSequence;
+        final Path path;
+        long lastSequence;
+
+        Segment(long baseSequence, Path path) {
+            this.baseSequence = baseSequence;
+            this.path = path;
+            this.lastSequence = baseSequence - 1;
+        }
+    }
+
+    private final Path directory;
+    private final int syncEvery;
+    private final long segmentBytes;
+    private final TicketHandler handler;
+    // Written under the queue lock, read without it by displays and gauges
+    private final ConcurrentLinkedDeque<Entry> pending = new ConcurrentLinkedDeque<>();
+    // Sequences taken by processNextTicket but not handled successfully yet
+    private final TreeSet<Long> outstanding = new TreeSet<>();
+    private final AtomicIntegerArray backlog = new AtomicIntegerArray(Priority.values().length);
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final FileChannel ackFile;
+    private final ByteBuffer ackRecord = ByteBuffer.allocate(16);
+    private final ScheduledExecutorService syncTimer;
+    private FileChannel active;
+    private long activeBytes;
+    private long nextSequence;
+    private long bufferBaseSequence; // first sequence staged in buffer
+    private boolean writeFailed;
+    private long highestTaken;
+    private long ackOffset;
+    private long persistedAckOffset;
+    private int unsynced;
+    private long syncs;
+
+    public DurableTicketQueue(Path directory, int syncEvery, TicketHandler handler) throws IOException {
+        this(directory, syncEvery, DEFAULT_SEGMENT_BYTES, handler);
+    }
+
+    public DurableTicketQueue(Path directory, int syncEvery, long segmentBytes, TicketHandler handler)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.syncEvery = syncEvery;
+        this.segmentBytes = segmentBytes;
+        this.handler = handler;
+        this.ackFile = FileChannel.open(directory.resolve("ack.offset"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        this.syncTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ticket-log-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncTimer.scheduleWithFixedDelay(this::syncQuietly, MAX_SYNC_DELAY_MILLIS, MAX_SYNC_DELAY_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void addTicket(Ticket ticket) {
+        try {
+            byte[] id = ticket.getId().getBytes(StandardCharsets.UTF_8);
+            byte[] description = ticket.getDescription().getBytes(StandardCharsets.UTF_8);
+            int payload = 8 + 1 + 4 + id.length + 4 + description.length;
+            if (activeBytes + buffer.position() >= segmentBytes) {
+                roll();
+            }
+            if (buffer.remaining() < HEADER_BYTES + payload) {
+                drain();
+                if (buffer.capacity() < HEADER_BYTES + payload) {
+                    throw new IllegalArgumentException("Ticket too large: " + payload + " bytes");
+                }
+            }
+            long sequence = nextSequence++;
+            int start = buffer.position();
+            if (start == 0) {
+                bufferBaseSequence = sequence;
+            }
+            buffer.position(start + HEADER_BYTES);
+            buffer.putLong(sequence).put((byte) ticket.getPriority().ordinal())
+                    .putInt(id.length).put(id).putInt(description.length).put(description);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(start + HEADER_BYTES).limit(buffer.position()));
+            buffer.putInt(start, payload).putInt(start + 4, (int) crc.getValue());
+            segments.getLast().lastSequence = sequence;
+            ticket.markEnqueued(System.nanoTime());
+            pending.add(new Entry(sequence, ticket));
+            backlog.incrementAndGet(ticket.getPriority().ordinal());
+            if (++unsynced >= syncEvery) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Handle the oldest ticket and acknowledge it. If the handler throws, the ticket goes back
+    // to the head of the queue unacknowledged and the exception is passed on.
+    @Override
+    public void processNextTicket() {
+        Entry entry;
+        synchronized (this) {
+            entry = pending.poll();
+            if (entry != null) {
+                backlog.decrementAndGet(entry.ticket.getPriority().ordinal());
+                outstanding.add(entry.sequence);
+                highestTaken = Math.max(highestTaken, entry.sequence);
+            }
+        }
+        if (entry == null) {
+            System.out.println("No tickets available for processing.");
+            return;
+        }
+        try {
+            handler.handle(entry.ticket);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                pending.addFirst(entry);
+                backlog.incrementAndGet(entry.ticket.getPriority().ordinal());
+            }
+            throw e;
+        }
+        acknowledge(entry.sequence);
+    }
+
+    private synchronized void acknowledge(long sequence) {
+        outstanding.remove(sequence);
+        // Everything below the oldest outstanding ticket has been handled
+        ackOffset = outstanding.isEmpty() ? highestTaken + 1 : outstanding.first();
+        if (ackOffset - persistedAckOffset >= syncEvery) {
+            try {
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void displayPendingTickets() {
+        if (pendingCount() == 0) {
+            System.out.println("No pending tickets available.");
+            return;
+        }
+        System.out.println("Pending Tickets:");
+        PagedWriter.print(pendingTickets(),
+                (index, ticket, line) -> line.append(ticket.getId()).append(" - ").append(ticket.getDescription()));
+    }
+
+    @Override
+    public int pendingCount() {
+        int total = 0;
+        for (int i = 0; i < backlog.length(); i++) {
+            total += backlog.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public int pendingCount(Priority priority) {
+        return backlog.get(priority.ordinal());
+    }
+
+    @Override
+    public Iterator<Ticket> pendingTickets() {
+        Iterator<Entry> entries = pending.iterator();
+        return new Iterator<Ticket>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Ticket next() {
+                return entries.next().ticket;
+            }
+        };
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    // Force appended tickets and the ack offset to disk, then drop fully acknowledged segments
+    public synchronized void sync() throws IOException {
+        if (unsynced > 0 || buffer.position() > 0) {
+            drain();
+            active.force(false);
+            unsynced = 0;
+            syncs++;
+        }
+        if (ackOffset != persistedAckOffset) {
+            ackRecord.clear();
+            ackRecord.putLong(ackOffset).putLong(checksum(ackOffset)).flip();
+            while (ackRecord.hasRemaining()) {
+                ackFile.write(ackRecord, ackRecord.position());
+            }
+            ackFile.force(false);
+            persistedAckOffset = ackOffset;
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        syncTimer.shutdownNow();
+        sync();
+        active.close();
+        ackFile.close();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException | RuntimeException e) {
+            // retried on the next tick or the next batch
+        }
+    }
+
+    // Write the staged records. After a failed write the segment may end in a partial record,
+    // so the records stay staged and the next attempt writes them to a fresh segment.
+    private void drain() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        if (writeFailed) {
+            reopenAfterFailure();
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                activeBytes += active.write(buffer);
+            }
+        } catch (IOException e) {
+            buffer.position(buffer.limit()).limit(buffer.capacity());
+            writeFailed = true;
+            throw e;
+        }
+        buffer.clear();
+    }
+
+    // Abandon the segment that failed; replay ignores the records it repeats
+    private void reopenAfterFailure() throws IOException {
+        try {
+            active.close();
+        } catch (IOException ignored) {
+        }
+        Segment failed = segments.getLast();
+        if (failed.baseSequence == bufferBaseSequence) {
+            Files.deleteIfExists(failed.path); // it holds nothing but copies of the staged records
+            segments.removeLast();
+        } else {
+            failed.lastSequence = bufferBaseSequence - 1;
+        }
+        openSegment(bufferBaseSequence);
+        segments.getLast().lastSequence = nextSequence - 1;
+        writeFailed = false;
+    }
+
+    private void roll() throws IOException {
+        drain();
+        active.force(false);
+        active.close();
+        openSegment(nextSequence);
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        Segment segment = new Segment(baseSequence, directory.resolve(String.format("%020d", baseSequence) + SEGMENT_SUFFIX));
+        active = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        activeBytes = active.size();
+        active.position(activeBytes);
+        segments.add(segment);
+    }
+
+    // Delete closed segments whose tickets have all been acknowledged
+    private void compact() throws IOException {
+        while (segments.size() > 1 && segments.getFirst().lastSequence < persistedAckOffset) {
+            Files.deleteIfExists(segments.removeFirst().path);
+        }
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer ack = ByteBuffer.allocate(16);
+        while (ack.hasRemaining() && ackFile.read(ack, ack.position()) > 0) {
+        }
+        ack.flip();
+        if (ack.remaining() == 16) {
+            long offset = ack.getLong();
+            if (ack.getLong() == checksum(offset)) {
+                ackOffset = offset; // a torn or missing ack record replays everything (at-least-once)
+            }
+        }
+        persistedAckOffset = ackOffset;
+        highestTaken = ackOffset - 1;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null); // zero-padded names sort by base sequence
+        nextSequence = ackOffset;
+        long replayedThrough = -1;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Segment segment = new Segment(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+            long validEnd = replay(segment, replayedThrough);
+            if (validEnd < Files.size(file)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validEnd); // torn write at the tail
+                }
+            }
+            segments.add(segment);
+            nextSequence = Math.max(nextSequence, segment.lastSequence + 1);
+            replayedThrough = Math.max(replayedThrough, segment.lastSequence);
+        }
+        compact();
+        if (segments.isEmpty() || Files.size(segments.getLast().path) >= segmentBytes) {
+            openSegment(nextSequence);
+        } else {
+            Segment last = segments.removeLast();
+            openSegment(last.baseSequence);
+            segments.getLast().lastSequence = last.lastSequence;
+        }
+    }
+
+    // Read every intact record of a segment, queueing the unacknowledged ones not seen in an earlier
+    // segment; returns the valid length
+    private long replay(Segment segment, long replayedThrough) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment.path));
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= HEADER_BYTES) {
+            int start = data.position();
+            int length = data.getInt();
+            int expected = data.getInt();
+            if (length < 17 || length > data.remaining()) {
+                return start;
+            }
+            crc.reset();
+            crc.update(data.duplicate().limit(data.position() + length));
+            if ((int) crc.getValue() != expected) {
+                return start;
+            }
+            long sequence = data.getLong();
+            Priority priority = Priority.values()[data.get()];
+            byte[] id = new byte[data.getInt()];
+            data.get(id);
+            byte[] description = new byte[data.getInt()];
+            data.get(description);
+            if (sequence <= replayedThrough) {
+                continue; // repeated in a later segment after a write error
+            }
+            segment.lastSequence = sequence;
+            if (sequence >= ackOffset) {
+                Ticket ticket = new Ticket(new String(id, StandardCharsets.UTF_8),
+                        new String(description, StandardCharsets.UTF_8), priority);
+                ticket.markEnqueued(System.nanoTime());
+                pending.add(new Entry(sequence, ticket));
+                backlog.incrementAndGet(priority.ordinal());
+            }
+        }
+        return data.position();
+    }
+
+    private static long checksum(long offset) {
+        return Long.rotateLeft(offset, 17) ^ 0x5DEECE66DL;
+    }
+}
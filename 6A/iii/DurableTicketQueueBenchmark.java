@@ -0,0 +1,67 @@
+package iii;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Enqueue throughput of DurableTicketQueue with one fsync per 1, 64 and 1024 tickets, then a
+// crash-recovery check: process part of the backlog, stop without closing, reopen, and count replays.
+// Usage: java iii.DurableTicketQueueBenchmark [tickets]
+public class DurableTicketQueueBenchmark {
+    public static void main(String[] args) throws IOException {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        TicketHandler ignore = ticket -> { };
+
+        System.out.println("batch    tickets    tickets/sec    fsyncs");
+        for (int batch : new int[] {1, 64, 1024}) {
+            Path dir = Files.createTempDirectory("tickets");
+            // fsync per ticket is slow; cap that run so it finishes in reasonable time
+            int count = batch == 1 ? Math.min(tickets, 5_000) : tickets;
+            try (DurableTicketQueue queue = new DurableTicketQueue(dir, batch, ignore)) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    queue.addTicket(new Ticket("TCK-" + i, "Customer cannot log in after password reset"));
+                }
+                queue.sync();
+                long nanos = System.nanoTime() - start;
+                System.out.printf("%5d %10d %14.0f %9d%n", batch, count, count * 1e9 / nanos, queue.getSyncs());
+            } finally {
+                delete(dir);
+            }
+        }
+
+        Path dir = Files.createTempDirectory("tickets");
+        try {
+            DurableTicketQueue queue = new DurableTicketQueue(dir, 64, 1L << 20, ignore);
+            for (int i = 0; i < tickets; i++) {
+                queue.addTicket(new Ticket("TCK-" + i, "Customer cannot log in after password reset"));
+            }
+            int segmentsBefore = queue.segmentCount();
+            int processed = tickets * 6 / 10;
+            for (int i = 0; i < processed; i++) {
+                queue.processNextTicket();
+            }
+            queue.sync();
+            int segmentsAfter = queue.segmentCount();
+            // Simulated crash: the queue is abandoned without close()
+            try (DurableTicketQueue recovered = new DurableTicketQueue(dir, 64, 1L << 20, ignore)) {
+                System.out.printf("%nRecovery: %,d added, %,d processed, %,d replayed (expected %,d); "
+                                + "segments %d -> %d after compaction, %d on reopen%n",
+                        tickets, processed, recovered.pendingCount(), tickets - processed,
+                        segmentsBefore, segmentsAfter, recovered.segmentCount());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package iii;
 
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
+import paging.PagedWriter;
+
+// Plain FIFO queue for single-threaded use; see PriorityTicketQueue for concurrent producers
 public class LinkedListTicketQueue implements TicketQueue {
     private Queue<Ticket> ticketQueue;
+    private int[] pendingByPriority = new int[Priority.values().length];
 
     public LinkedListTicketQueue() {
         this.ticketQueue = new LinkedList<>();
@@ -13,6 +19,7 @@ public class LinkedListTicketQueue implements TicketQueue {
     @Override
     public void addTicket(Ticket ticket) {
         ticketQueue.add(ticket);
+        pendingByPriority[ticket.getPriority().ordinal()]++;
         System.out.println("Ticket added successfully!");
     }
 
@@ -22,6 +29,7 @@ public class LinkedListTicketQueue implements TicketQueue {
             System.out.println("No tickets available for processing.");
         } else {
             Ticket ticket = ticketQueue.poll();
+            pendingByPriority[ticket.getPriority().ordinal()]--;
             System.out.println("Processing ticket: " + ticket.getId() + " - " + ticket.getDescription());
         }
     }
@@ -32,9 +40,24 @@ public class LinkedListTicketQueue implements TicketQueue {
             System.out.println("No pending tickets available.");
         } else {
             System.out.println("Pending Tickets:");
-            for (Ticket ticket : ticketQueue) {
-                System.out.println(ticket.getId() + " - " + ticket.getDescription());
-            }
+            PagedWriter.print(pendingTickets(),
+                    (index, ticket, line) -> line.append(ticket.getId()).append(" - ").append(ticket.getDescription()));
         }
     }
+
+    @Override
+    public int pendingCount() {
+        return ticketQueue.size();
+    }
+
+    @Override
+    public int pendingCount(Priority priority) {
+        return pendingByPriority[priority.ordinal()];
+    }
+
+    // Read-only copy, so the queue can change while it is walked and the gauges stay in step
+    @Override
+    public Iterator<Ticket> pendingTickets() {
+        return List.copyOf(ticketQueue).iterator();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package iii;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+// Measures what a dashboard costs the producers: tickets are added with and without a reader
+// that keeps polling the per-class gauges and walking the first page of the pending snapshot.
+// Usage: java iii.PendingSnapshotBenchmark [tickets] [producers] [pageSize]
+public class PendingSnapshotBenchmark {
+    private static volatile boolean producing;
+
+    public static void main(String[] args) throws InterruptedException {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+
+        run("warm-up", tickets / 4, producers, pageSize, true);
+        run("producers only", tickets, producers, pageSize, false);
+        run("with dashboard", tickets, producers, pageSize, true);
+    }
+
+    private static void run(String label, int tickets, int producers, int pageSize, boolean dashboard)
+            throws InterruptedException {
+        PriorityTicketQueue queue = new PriorityTicketQueue();
+        long[] gaugeSamples = new long[1 << 16];
+        long[] pageSamples = new long[1 << 12];
+        int[] counts = new int[2];
+        producing = true;
+        Thread reader = new Thread(() -> {
+            while (producing) {
+                long start = System.nanoTime();
+                int total = 0;
+                for (Priority priority : Priority.values()) {
+                    total += queue.pendingCount(priority);
+                }
+                long gauged = System.nanoTime();
+                Iterator<Ticket> page = queue.pendingTickets();
+                for (int i = 0; i < pageSize && page.hasNext(); i++) {
+                    total += page.next().getId().length();
+                }
+                long paged = System.nanoTime();
+                if (total < 0) {
+                    System.out.println(total);
+                }
+                gaugeSamples[counts[0]++ & (gaugeSamples.length - 1)] = gauged - start;
+                pageSamples[counts[1]++ & (pageSamples.length - 1)] = paged - gauged;
+            }
+        });
+        if (dashboard) {
+            reader.start();
+        }
+
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int index = p;
+            threads[p] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(index);
+                Priority[] classes = Priority.values();
+                for (int i = index; i < tickets; i += producers) {
+                    queue.addTicket(new Ticket("TCK-" + i, "Benchmark ticket", classes[random.nextInt(classes.length)]));
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long nanos = System.nanoTime() - start;
+        producing = false;
+        reader.join();
+
+        System.out.printf("%-15s %,d tickets, %d producers: %,.0f adds/sec, %,d pending%n",
+                label, tickets, producers, tickets * 1e9 / nanos, queue.pendingCount());
+        if (dashboard) {
+            long[] gauges = Arrays.copyOf(gaugeSamples, Math.min(counts[0], gaugeSamples.length));
+            long[] pages = Arrays.copyOf(pageSamples, Math.min(counts[1], pageSamples.length));
+            Arrays.sort(gauges);
+            Arrays.sort(pages);
+            System.out.printf("                %,d dashboard polls: gauges p50 %d ns, p99 %d ns; "
+                    + "page of %d p50 %.1f us, p99 %.1f us%n",
+                    counts[0], gauges[gauges.length / 2], gauges[(int) (gauges.length * 0.99)],
+                    pageSize, pages[pages.length / 2] / 1e3, pages[(int) (pages.length * 0.99)] / 1e3);
+        }
+        queue.close();
+    }
+}
@@ -0,0 +1,27 @@
+package iii;
+
+import java.util.concurrent.TimeUnit;
+
+// Ticket priority classes: a scheduling weight and the response time promised to the customer
+public enum Priority {
+    URGENT(8, TimeUnit.MINUTES.toNanos(15)),
+    HIGH(4, TimeUnit.HOURS.toNanos(1)),
+    NORMAL(2, TimeUnit.HOURS.toNanos(8)),
+    LOW(1, TimeUnit.DAYS.toNanos(2));
+
+    private final int weight;
+    private final long slaNanos;
+
+    Priority(int weight, long slaNanos) {
+        this.weight = weight;
+        this.slaNanos = slaNanos;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public long getSlaNanos() {
+        return slaNanos;
+    }
+}
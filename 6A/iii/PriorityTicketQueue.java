@@ -0,0 +1,242 @@
+package iii;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import paging.PagedWriter;
+
+// Ticket queue with one lock-free queue per priority class and an optional pool of agents.
+// Classes are served by smooth weighted round robin (URGENT:HIGH:NORMAL:LOW = 8:4:2:1), so
+// under load every class keeps a guaranteed share and LOW tickets cannot starve; a ticket
+// whose SLA has run out is taken ahead of the rotation. With agents, every added ticket
+// schedules one task on a work-stealing pool, and the task takes whichever ticket is due next.
+public class PriorityTicketQueue implements TicketQueue, AutoCloseable {
+    private static final Priority[] CLASSES = Priority.values();
+    private static final int[] SCHEDULE = buildSchedule();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ConcurrentLinkedQueue<Ticket>[] queues = new ConcurrentLinkedQueue[CLASSES.length];
+    private final AtomicIntegerArray backlog = new AtomicIntegerArray(CLASSES.length);
+    private final LongAdder[] processed = new LongAdder[CLASSES.length];
+    private final WaitHistogram[] waits = new WaitHistogram[CLASSES.length];
+    private final AtomicLong turn = new AtomicLong();
+    private final TicketHandler handler;
+    private final ForkJoinPool agents;
+
+    // Single-threaded use: processNextTicket handles tickets inline
+    public PriorityTicketQueue() {
+        this(0, TicketHandler.PRINT);
+    }
+
+    public PriorityTicketQueue(int agentCount, TicketHandler handler) {
+        for (int i = 0; i < CLASSES.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+            processed[i] = new LongAdder();
+            waits[i] = new WaitHistogram();
+        }
+        this.handler = handler;
+        this.agents = agentCount == 0 ? null : new ForkJoinPool(agentCount, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("support-agent-" + worker.getPoolIndex());
+            worker.setDaemon(true);
+            return worker;
+        }, null, true);
+    }
+
+    @Override
+    public void addTicket(Ticket ticket) {
+        ticket.markEnqueued(System.nanoTime());
+        queues[ticket.getPriority().ordinal()].add(ticket);
+        backlog.incrementAndGet(ticket.getPriority().ordinal());
+        if (agents != null) {
+            agents.execute(this::processOne);
+        }
+    }
+
+    @Override
+    public void processNextTicket() {
+        if (!processOne()) {
+            System.out.println("No tickets available for processing.");
+        }
+    }
+
+    @Override
+    public void displayPendingTickets() {
+        if (pendingCount() == 0) {
+            System.out.println("No pending tickets available.");
+            return;
+        }
+        System.out.println("Pending Tickets:");
+        PagedWriter.print(pendingTickets(), (index, ticket, line) -> line.append(ticket.getId())
+                .append(" [").append(ticket.getPriority()).append("] - ").append(ticket.getDescription()));
+    }
+
+    // Sum of the per-class gauges; may be momentarily off by in-flight adds and polls
+    @Override
+    public int pendingCount() {
+        int total = 0;
+        for (int i = 0; i < CLASSES.length; i++) {
+            total += backlog.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public int pendingCount(Priority priority) {
+        return backlog.get(priority.ordinal());
+    }
+
+    // Walks the class queues in priority order; concurrent adds and polls may or may not be seen
+    @Override
+    public Iterator<Ticket> pendingTickets() {
+        return new Iterator<Ticket>() {
+            private int queue;
+            private Iterator<Ticket> current = queues[0].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && queue < CLASSES.length - 1) {
+                    current = queues[++queue].iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Ticket next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    public long getProcessed(Priority priority) {
+        return processed[priority.ordinal()].sum();
+    }
+
+    // Queue wait (enqueue to pickup) at the given percentile (0-100), in nanoseconds
+    public long waitPercentileNanos(Priority priority, double percentile) {
+        return waits[priority.ordinal()].percentileNanos(percentile);
+    }
+
+    // Stop accepting work once every scheduled ticket has been handled
+    @Override
+    public void close() {
+        if (agents != null) {
+            agents.shutdown();
+            try {
+                agents.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean processOne() {
+        long now = System.nanoTime();
+        Ticket ticket = poll(now);
+        if (ticket == null) {
+            return false;
+        }
+        int c = ticket.getPriority().ordinal();
+        backlog.decrementAndGet(c);
+        waits[c].record(now - ticket.getEnqueuedAtNanos());
+        handler.handle(ticket);
+        processed[c].increment();
+        return true;
+    }
+
+    private Ticket poll(long now) {
+        // Overdue tickets first, most urgent class first
+        for (ConcurrentLinkedQueue<Ticket> queue : queues) {
+            Ticket head = queue.peek();
+            if (head != null && head.isPastSla(now)) {
+                Ticket ticket = queue.poll();
+                if (ticket != null) {
+                    return ticket;
+                }
+            }
+        }
+        int preferred = SCHEDULE[(int) (turn.getAndIncrement() % SCHEDULE.length)];
+        Ticket ticket = queues[preferred].poll();
+        for (int i = 0; ticket == null && i < CLASSES.length; i++) {
+            ticket = queues[i].poll(); // preferred class is empty: fall back in priority order
+        }
+        return ticket;
+    }
+
+    // Smooth weighted round robin sequence, e.g. U H U N U H U L U H U N U H U for 8:4:2:1
+    private static int[] buildSchedule() {
+        int total = 0;
+        for (Priority priority : CLASSES) {
+            total += priority.getWeight();
+        }
+        int[] schedule = new int[total];
+        int[] current = new int[CLASSES.length];
+        for (int slot = 0; slot < total; slot++) {
+            int best = 0;
+            for (int i = 0; i < CLASSES.length; i++) {
+                current[i] += CLASSES[i].getWeight();
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            schedule[slot] = best;
+        }
+        return schedule;
+    }
+
+    // Log-linear histogram (8 sub-buckets per power of two) safe for concurrent recording
+    static final class WaitHistogram {
+        private static final int SUB_BITS = 3;
+        private final AtomicLongArray buckets = new AtomicLongArray(64 << SUB_BITS);
+        private final LongAdder count = new LongAdder();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(index(Math.max(nanos, 1)));
+            count.increment();
+        }
+
+        // Upper bound of the bucket containing the given percentile (0-100)
+        long percentileNanos(double percentile) {
+            long target = (long) Math.ceil(count.sum() * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            if (magnitude < SUB_BITS) {
+                return (int) value;
+            }
+            int sub = (int) (value >>> (magnitude - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+            return ((magnitude - SUB_BITS + 1) << SUB_BITS) + sub;
+        }
+
+        private static long upperBound(int index) {
+            int group = index >>> SUB_BITS;
+            int sub = index & ((1 << SUB_BITS) - 1);
+            if (group == 0) {
+                return sub;
+            }
+            int magnitude = group + SUB_BITS - 1;
+            return ((long) ((1 << SUB_BITS) + sub + 1) << (magnitude - SUB_BITS)) - 1;
+        }
+    }
+}
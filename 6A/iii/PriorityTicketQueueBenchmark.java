@@ -0,0 +1,58 @@
+package iii;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Floods a PriorityTicketQueue with a burst of mixed-priority tickets and reports throughput and
+// queue wait per class. The burst is larger than the agents can clear, so waits show how the
+// weighting shares the agents between classes.
+// Usage: java iii.PriorityTicketQueueBenchmark [tickets] [agents] [producers] [handleMicros]
+public class PriorityTicketQueueBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int agentCount = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int producers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long handleNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 3 ? Long.parseLong(args[3]) : 50);
+
+        // Each agent spends a fixed time per ticket, as if talking to a customer
+        PriorityTicketQueue queue = new PriorityTicketQueue(agentCount, ticket -> LockSupport.parkNanos(handleNanos));
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int index = p;
+            threads[p] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(index);
+                for (int i = index; i < tickets; i += producers) {
+                    queue.addTicket(new Ticket("TCK-" + i, "Benchmark ticket", pick(random.nextInt(100))));
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        queue.close();
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("%,d tickets, %d agents, %d producers: %,.0f tickets/sec%n",
+                tickets, agentCount, producers, tickets * 1e9 / nanos);
+        System.out.println("class      processed     wait p50 ms   p90 ms   p99 ms   max ms");
+        for (Priority priority : Priority.values()) {
+            System.out.printf("%-8s %11d %14.1f %8.1f %8.1f %8.1f%n", priority, queue.getProcessed(priority),
+                    queue.waitPercentileNanos(priority, 50) / 1e6, queue.waitPercentileNanos(priority, 90) / 1e6,
+                    queue.waitPercentileNanos(priority, 99) / 1e6, queue.waitPercentileNanos(priority, 100) / 1e6);
+        }
+    }
+
+    // 5% urgent, 15% high, 50% normal, 30% low
+    private static Priority pick(int percent) {
+        if (percent < 5) {
+            return Priority.URGENT;
+        }
+        if (percent < 20) {
+            return Priority.HIGH;
+        }
+        return percent < 70 ? Priority.NORMAL : Priority.LOW;
+    }
+}
@@ -3,10 +3,17 @@ package iii;
 public class Ticket {
     private String id;
     private String description;
+    private Priority priority;
+    private long enqueuedAtNanos;
 
     public Ticket(String id, String description) {
+        this(id, description, Priority.NORMAL);
+    }
+
+    public Ticket(String id, String description, Priority priority) {
         this.id = id;
         this.description = description;
+        this.priority = priority;
     }
 
     public String getId() {
@@ -16,4 +23,21 @@ public class Ticket {
     public String getDescription() {
         return description;
     }
-}
\ No newline at end of file
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    // System.nanoTime() when the ticket entered a queue
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    public boolean isPastSla(long nowNanos) {
+        return nowNanos - enqueuedAtNanos > priority.getSlaNanos();
+    }
+
+    void markEnqueued(long nanos) {
+        this.enqueuedAtNanos = nanos;
+    }
+}
@@ -0,0 +1,9 @@
+package iii;
+
+// Work an agent does for one ticket
+public interface TicketHandler {
+    TicketHandler PRINT = ticket ->
+            System.out.println("Processing ticket: " + ticket.getId() + " - " + ticket.getDescription());
+
+    void handle(Ticket ticket);
+}
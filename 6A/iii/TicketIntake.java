@@ -0,0 +1,316 @@
+package iii;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Intake stage in front of a TicketQueue.
+// Tickets whose id was seen recently are dropped. The rest are compared with open incidents by
+// MinHash over the words of the normalised description, looked up through an LSH index
+// (16 bands of 3 hashes): a ticket close enough to an incident's first ticket joins that incident
+// instead of reaching the queue, so an outage turns into a handful of parent tickets.
+// The downstream queue must be safe for concurrent addTicket calls.
+public class TicketIntake implements TicketQueue {
+    private static final int BANDS = 16;
+    private static final int ROWS = 3;
+    private static final int HASHES = BANDS * ROWS;
+    private static final int[] SEEDS = new int[HASHES];
+    private static final int SAMPLE_IDS = 10;
+
+    static {
+        int seed = 0x2545F491;
+        for (int i = 0; i < HASHES; i++) {
+            seed ^= seed << 13;
+            seed ^= seed >>> 17;
+            seed ^= seed << 5;
+            SEEDS[i] = seed;
+        }
+    }
+
+    // A parent ticket and the similar tickets folded into it.
+    // A burst lands on a few incidents from every intake thread, so add() avoids shared writes:
+    // the count is striped, and the flag and sample slots are written only while they change.
+    public static class Incident {
+        private final Ticket parent;
+        private final int[] signature;
+        private final LongAdder children = new LongAdder();
+        private final AtomicReferenceArray<String> sampleIds = new AtomicReferenceArray<>(SAMPLE_IDS);
+        private volatile boolean samplesFull;
+        private volatile boolean referenced;
+
+        Incident(Ticket parent, int[] signature) {
+            this.parent = parent;
+            this.signature = signature;
+        }
+
+        public Ticket getParent() {
+            return parent;
+        }
+
+        public int getChildCount() {
+            return children.intValue();
+        }
+
+        // Ids of the first few tickets folded into this incident
+        public String[] getSampleChildIds() {
+            int count = 0;
+            while (count < SAMPLE_IDS && sampleIds.get(count) != null) {
+                count++;
+            }
+            String[] ids = new String[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = sampleIds.get(i);
+            }
+            return ids;
+        }
+
+        void add(Ticket child) {
+            if (!referenced) {
+                referenced = true;
+            }
+            children.increment();
+            if (!samplesFull) {
+                sample(child.getId());
+            }
+        }
+
+        // Claim the first free sample slot; slots fill in order and are never cleared
+        private void sample(String id) {
+            for (int i = 0; i < SAMPLE_IDS; i++) {
+                if (sampleIds.get(i) == null && sampleIds.compareAndSet(i, null, id)) {
+                    return;
+                }
+            }
+            samplesFull = true;
+        }
+
+        @Override
+        public String toString() {
+            return parent.getId() + " (+" + children.sum() + " similar) - " + parent.getDescription();
+        }
+    }
+
+    private final TicketQueue queue;
+    private final BoundedIdSet seenIds;
+    private final double similarity;
+    private final int maxIncidents;
+    private final ConcurrentHashMap<Long, Incident> bands = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Incident> incidentsByParent = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Incident> incidentOrder = new ConcurrentLinkedQueue<>();
+
+    // Metrics
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+
+    public TicketIntake(TicketQueue queue) {
+        this(queue, 1_000_000, 0.5, 10_000);
+    }
+
+    public TicketIntake(TicketQueue queue, int idCapacity, double similarity, int maxIncidents) {
+        this.queue = queue;
+        this.seenIds = new BoundedIdSet(idCapacity);
+        this.similarity = similarity;
+        this.maxIncidents = maxIncidents;
+    }
+
+    @Override
+    public void addTicket(Ticket ticket) {
+        received.increment();
+        if (!seenIds.add(ticket.getId())) {
+            duplicates.increment();
+            return;
+        }
+        int[] signature = signature(ticket.getDescription());
+        if (signature == null) {
+            // No words to compare: it would match every other wordless ticket, so it goes straight through
+            forwarded.increment();
+            queue.addTicket(ticket);
+            return;
+        }
+        Incident match = findIncident(signature);
+        if (match != null) {
+            match.add(ticket);
+            coalesced.increment();
+            return;
+        }
+        Incident incident = new Incident(ticket, signature);
+        for (int band = 0; band < BANDS; band++) {
+            bands.putIfAbsent(bandKey(signature, band), incident);
+        }
+        incidentsByParent.put(ticket.getId(), incident);
+        incidentOrder.add(incident);
+        if (incidentsByParent.size() > maxIncidents) {
+            retireOldest();
+        }
+        forwarded.increment();
+        queue.addTicket(ticket);
+    }
+
+    @Override
+    public void processNextTicket() {
+        queue.processNextTicket();
+    }
+
+    @Override
+    public void displayPendingTickets() {
+        queue.displayPendingTickets();
+    }
+
+    @Override
+    public int pendingCount() {
+        return queue.pendingCount();
+    }
+
+    @Override
+    public int pendingCount(Priority priority) {
+        return queue.pendingCount(priority);
+    }
+
+    @Override
+    public Iterator<Ticket> pendingTickets() {
+        return queue.pendingTickets();
+    }
+
+    // The incident a forwarded ticket stands for, or null once it has been retired from the index
+    public Incident getIncident(String parentTicketId) {
+        return incidentsByParent.get(parentTicketId);
+    }
+
+    // Incidents still in the index (weakly consistent view)
+    public Collection<Incident> openIncidents() {
+        return Collections.unmodifiableCollection(incidentsByParent.values());
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getForwarded() {
+        return forwarded.sum();
+    }
+
+    // Share of received tickets that never reached the queue
+    public double reductionRatio() {
+        long in = received.sum();
+        return in == 0 ? 0 : 1 - (double) forwarded.sum() / in;
+    }
+
+    private Incident findIncident(int[] signature) {
+        Incident best = null;
+        int bestMatches = (int) Math.ceil(similarity * HASHES) - 1;
+        for (int band = 0; band < BANDS; band++) {
+            Incident candidate = bands.get(bandKey(signature, band));
+            if (candidate == null || candidate == best) {
+                continue;
+            }
+            int matches = 0;
+            for (int i = 0; i < HASHES; i++) {
+                if (candidate.signature[i] == signature[i]) {
+                    matches++;
+                }
+            }
+            if (matches > bestMatches) {
+                best = candidate;
+                bestMatches = matches;
+            }
+        }
+        return best;
+    }
+
+    // Drop an old incident from the index so memory stays bounded during long outages.
+    // Second chance: an incident that gained tickets since it was last passed over is kept.
+    private void retireOldest() {
+        Incident oldest;
+        for (int scanned = 0; ; scanned++) {
+            oldest = incidentOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (!oldest.referenced || scanned >= maxIncidents) {
+                break;
+            }
+            oldest.referenced = false;
+            incidentOrder.add(oldest);
+        }
+        for (int band = 0; band < BANDS; band++) {
+            bands.remove(bandKey(oldest.signature, band), oldest);
+        }
+        incidentsByParent.remove(oldest.parent.getId(), oldest);
+    }
+
+    // MinHash signature of the set of words in the normalised description, or null if it has none
+    static int[] signature(String description) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        String text = normalise(description);
+        boolean anyWord = false;
+        int wordStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != ' ') {
+                continue;
+            }
+            if (i == wordStart) {
+                wordStart = i + 1;
+                continue;
+            }
+            int shingle = text.substring(wordStart, i).hashCode();
+            wordStart = i + 1;
+            anyWord = true;
+            for (int h = 0; h < HASHES; h++) {
+                int value = mix(shingle ^ SEEDS[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return anyWord ? signature : null;
+    }
+
+    // Lower case, digits folded to '#', runs of anything else to one space; ends with a space
+    private static String normalise(String description) {
+        StringBuilder out = new StringBuilder(description.length() + 2).append(' ');
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isLetter(c)) {
+                out.append(Character.toLowerCase(c));
+            } else if (Character.isDigit(c)) {
+                out.append('#');
+            } else if (out.charAt(out.length() - 1) != ' ') {
+                out.append(' ');
+            }
+        }
+        return out.append(' ').toString();
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = band;
+        for (int r = 0; r < ROWS; r++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[band * ROWS + r];
+        }
+        return h;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        h ^= h >>> 15;
+        h *= 0x846CA68B;
+        h ^= h >>> 16;
+        return h & Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,119 @@
+package iii;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Replays an outage burst through TicketIntake from several threads: most tickets are noisy
+// variants of a few outage reports, some are resubmissions of an existing id, the rest are
+// unrelated requests. Reports throughput, duplicates dropped, incidents created and the reduction ratio.
+// Usage: java iii.TicketIntakeStressTest [tickets] [threads]
+public class TicketIntakeStressTest {
+    private static final String[] OUTAGES = {
+        "Issue with login", "Cannot log in, the page says error 503", "Payment failed at checkout",
+        "Order tracking page is not loading", "Password reset email never arrives"
+    };
+    private static final String[] NOISE = {"", "please help", "urgent!!", "since this morning", "again", "ASAP"};
+    private static final String[] WORDS = vocabulary(2_000);
+
+    // Unrelated requests draw on a realistic vocabulary size; made-up words keep the test self-contained
+    private static String[] vocabulary(int size) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        SplittableRandom random = new SplittableRandom(99);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int syllables = 2 + random.nextInt(2); syllables > 0; syllables--) {
+                word.append(consonants.charAt(random.nextInt(consonants.length())))
+                        .append(vowels.charAt(random.nextInt(vowels.length())));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        // Downstream queue that only counts what gets through
+        LongAdder reachedQueue = new LongAdder();
+        TicketQueue downstream = new TicketQueue() {
+            @Override
+            public void addTicket(Ticket ticket) {
+                reachedQueue.increment();
+            }
+
+            @Override
+            public void processNextTicket() {
+            }
+
+            @Override
+            public void displayPendingTickets() {
+            }
+
+            @Override
+            public int pendingCount() {
+                return 0;
+            }
+
+            @Override
+            public int pendingCount(Priority priority) {
+                return 0;
+            }
+
+            @Override
+            public Iterator<Ticket> pendingTickets() {
+                return Collections.emptyIterator();
+            }
+        };
+        TicketIntake intake = new TicketIntake(downstream);
+
+        long start = System.nanoTime();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(index);
+                for (int i = index; i < tickets; i += threads) {
+                    int kind = random.nextInt(100);
+                    String id = "TCK-" + i;
+                    String description;
+                    if (kind < 3 && i > threads) {
+                        id = "TCK-" + random.nextInt(i); // resubmitted ticket
+                        description = "Issue with login";
+                    } else if (kind < 8) {
+                        StringBuilder words = new StringBuilder();
+                        for (int w = 0; w < 6; w++) {
+                            words.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                        }
+                        description = words.toString().trim();
+                    } else {
+                        description = OUTAGES[random.nextInt(OUTAGES.length)] + " "
+                                + NOISE[random.nextInt(NOISE.length)] + " (user " + random.nextInt(1_000_000) + ")";
+                    }
+                    intake.addTicket(new Ticket(id, description));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("%,d tickets from %d threads in %d ms (%,.0f tickets/sec)%n",
+                tickets, threads, nanos / 1_000_000, tickets * 1e9 / nanos);
+        System.out.printf("duplicates dropped %,d, coalesced %,d, forwarded %,d (queue saw %,d)%n",
+                intake.getDuplicates(), intake.getCoalesced(), intake.getForwarded(), reachedQueue.sum());
+        System.out.printf("reduction ratio %.2f%% (%,d tickets reached agents)%n",
+                intake.reductionRatio() * 100, intake.getForwarded());
+        intake.openIncidents().stream()
+                .sorted(Comparator.comparingInt(TicketIntake.Incident::getChildCount).reversed())
+                .limit(OUTAGES.length + 1)
+                .forEach(incident -> System.out.println("  incident " + incident));
+    }
+}
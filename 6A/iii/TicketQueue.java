@@ -1,9 +1,18 @@
 package iii;
 
-import java.util.Queue;
+import java.util.Iterator;
 
 public interface TicketQueue {
     void addTicket(Ticket ticket);
     void processNextTicket();
     void displayPendingTickets();
+
+    // Number of pending tickets, kept as a running count (O(1))
+    int pendingCount();
+
+    // Pending tickets of one priority class, kept as a running count (O(1))
+    int pendingCount(Priority priority);
+
+    // Weakly consistent iterator over the pending tickets; never blocks producers
+    Iterator<Ticket> pendingTickets();
 }
\ No newline at end of file
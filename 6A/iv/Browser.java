@@ -1,25 +1,81 @@
 package iv;
 
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 public class Browser {
-    private BrowserHistory history;
+    private BrowserInterface history;
+    private PageCache cache;
+    private byte[] currentContent;
+
+    // Back/forward navigation latency, including loading the page
+    private final LongAdder backForwardCount = new LongAdder();
+    private final LongAdder backForwardNanos = new LongAdder();
+    private final LongAccumulator maxBackForwardNanos = new LongAccumulator(Math::max, 0);
 
     public Browser() {
-        history = new BrowserHistory();
+        this(new BrowserHistory());
+    }
+
+    public Browser(BrowserInterface history) {
+        this.history = history;
+    }
+
+    // Load page content through the cache and prefetch the neighbouring history entries
+    public Browser(BrowserInterface history, PageCache cache) {
+        this.history = history;
+        this.cache = cache;
     }
 
     public void addPage(String page) {
         history.addPage(page);
+        show();
     }
 
     public void goBack() {
-        history.goBack();
+        navigate(false);
     }
 
     public void goForward() {
-        history.goForward();
+        navigate(true);
     }
 
     public String getCurrentPage() {
         return history.getCurrentPage();
     }
-}
\ No newline at end of file
+
+    public byte[] getCurrentContent() {
+        return currentContent;
+    }
+
+    public double getAverageBackForwardMillis() {
+        long count = backForwardCount.sum();
+        return count == 0 ? 0 : backForwardNanos.sum() / 1e6 / count;
+    }
+
+    public double getMaxBackForwardMillis() {
+        return maxBackForwardNanos.get() / 1e6;
+    }
+
+    private void navigate(boolean forward) {
+        long start = System.nanoTime();
+        boolean moved = forward ? history.goForward() : history.goBack();
+        if (cache == null || !moved) {
+            return; // nothing to load, or already at the end of the history
+        }
+        show();
+        long elapsed = System.nanoTime() - start;
+        backForwardCount.increment();
+        backForwardNanos.add(elapsed);
+        maxBackForwardNanos.accumulate(elapsed);
+    }
+
+    private void show() {
+        if (cache == null) {
+            return;
+        }
+        currentContent = cache.get(history.getCurrentPage());
+        cache.prefetch(history.peekBack());
+        cache.prefetch(history.peekForward());
+    }
+}
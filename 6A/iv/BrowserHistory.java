@@ -3,7 +3,7 @@ package iv;
 import java.util.ArrayDeque;
 import java.util.Deque;
 
-public class BrowserHistory {
+public class BrowserHistory implements BrowserInterface {
     private Deque<String> backStack;
     private Deque<String> forwardStack;
     private String currentPage;
@@ -14,6 +14,7 @@ public class BrowserHistory {
         currentPage = null;
     }
 
+    @Override
     public void addPage(String page) {
         if (currentPage != null) {
             backStack.push(currentPage);
@@ -22,21 +23,38 @@ public class BrowserHistory {
         forwardStack.clear();
     }
 
-    public void goBack() {
-        if (!backStack.isEmpty()) {
-            forwardStack.push(currentPage);
-            currentPage = backStack.pop();
+    @Override
+    public boolean goBack() {
+        if (backStack.isEmpty()) {
+            return false;
         }
+        forwardStack.push(currentPage);
+        currentPage = backStack.pop();
+        return true;
     }
 
-    public void goForward() {
-        if (!forwardStack.isEmpty()) {
-            backStack.push(currentPage);
-            currentPage = forwardStack.pop();
+    @Override
+    public boolean goForward() {
+        if (forwardStack.isEmpty()) {
+            return false;
         }
+        backStack.push(currentPage);
+        currentPage = forwardStack.pop();
+        return true;
     }
 
+    @Override
     public String getCurrentPage() {
         return currentPage;
     }
+
+    @Override
+    public String peekBack() {
+        return backStack.peek();
+    }
+
+    @Override
+    public String peekForward() {
+        return forwardStack.peek();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package iv;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Retained heap after 1M navigations for BrowserHistory and CompactBrowserHistory.
+// URLs are built fresh for every visit, as they would be when parsed from requests, and
+// drawn from a skewed pool so popular pages repeat.
+// Usage: java iv.BrowserHistoryMemoryBenchmark [navigations] [distinctUrls]
+public class BrowserHistoryMemoryBenchmark {
+    // Only reference to the history under test, so it can be dropped and the difference measured
+    private static BrowserInterface history;
+
+    public static void main(String[] args) {
+        int navigations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        System.out.println("implementation                         retained MB   bytes/navigation   ns/navigation");
+        run("BrowserHistory (unbounded)", BrowserHistory::new, navigations, distinct);
+        run("CompactBrowserHistory (cap 1000)", CompactBrowserHistory::new, navigations, distinct);
+        run("CompactBrowserHistory (cap 1M)", () -> new CompactBrowserHistory(1 << 20), navigations, distinct);
+    }
+
+    private static void run(String name, Supplier<BrowserInterface> factory, int navigations, int distinct) {
+        history = factory.get();
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < navigations; i++) {
+            int op = random.nextInt(10);
+            if (op < 7) {
+                // Squaring a uniform draw skews visits towards low page numbers
+                double u = random.nextDouble();
+                history.addPage("https://example.com/page/" + (int) (u * u * distinct));
+            } else if (op < 9) {
+                history.goBack();
+            } else {
+                history.goForward();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long withHistory = usedHeap();
+        history = null;
+        long retained = withHistory - usedHeap();
+        System.out.printf("%-38s %11.1f %18.1f %15.1f%n", name, retained / 1e6,
+                retained / (double) navigations, nanos / (double) navigations);
+    }
+
+    // Collect until the used heap stops shrinking
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
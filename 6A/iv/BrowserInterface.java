@@ -2,7 +2,17 @@ package iv;
 
 public interface BrowserInterface {
     void addPage(String page);
-    void goBack();
-    void goForward();
+    // Each returns false, without moving, when there is no page in that direction
+    boolean goBack();
+    boolean goForward();
     String getCurrentPage();
+
+    // Pages one step back and forward without moving, or null; used for prefetching
+    default String peekBack() {
+        return null;
+    }
+
+    default String peekForward() {
+        return null;
+    }
 }
\ No newline at end of file
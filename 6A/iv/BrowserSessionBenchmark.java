@@ -0,0 +1,94 @@
+package iv;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Many tabs navigating concurrently through BrowserSessionService, followed by an idle-eviction check.
+// Usage: java iv.BrowserSessionBenchmark [tabs] [threads] [seconds]
+public class BrowserSessionBenchmark {
+    private static final int TABS_PER_SESSION = 10;
+    private static final int SAMPLE_EVERY = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int tabs = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long idleTimeoutMillis = 2_000;
+
+        String[] urls = new String[10_000];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = "https://example.com/page/" + i;
+        }
+        BrowserSessionService.TabKey[] keys = new BrowserSessionService.TabKey[tabs];
+        for (int i = 0; i < tabs; i++) {
+            keys[i] = new BrowserSessionService.TabKey("session-" + i / TABS_PER_SESSION, "tab-" + i % TABS_PER_SESSION);
+        }
+
+        try (BrowserSessionService service = new BrowserSessionService(100, idleTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            for (BrowserSessionService.TabKey key : keys) {
+                service.addPage(key, urls[0]);
+            }
+
+            // Phase 1: mixed navigation across all tabs, sampling read latency
+            long[] ops = new long[threads];
+            long[][] readSamples = new long[threads][];
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int index = t;
+                workers[t] = new Thread(() -> {
+                    SplittableRandom random = new SplittableRandom(index);
+                    long[] samples = new long[1 << 20];
+                    int sampled = 0;
+                    long count = 0;
+                    while (System.nanoTime() - deadline < 0) {
+                        for (int i = 0; i < 1024; i++, count++) {
+                            BrowserSessionService.TabKey key = keys[random.nextInt(tabs)];
+                            int op = random.nextInt(100);
+                            if (op < 60) {
+                                if (count % SAMPLE_EVERY == 0 && sampled < samples.length) {
+                                    long before = System.nanoTime();
+                                    service.getCurrentPage(key);
+                                    samples[sampled++] = System.nanoTime() - before;
+                                } else {
+                                    service.getCurrentPage(key);
+                                }
+                            } else if (op < 90) {
+                                service.addPage(key, urls[random.nextInt(urls.length)]);
+                            } else if (op < 95) {
+                                service.goBack(key);
+                            } else {
+                                service.goForward(key);
+                            }
+                        }
+                    }
+                    ops[index] = count;
+                    readSamples[index] = Arrays.copyOf(samples, sampled);
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long total = Arrays.stream(ops).sum();
+            long[] reads = Arrays.stream(readSamples).flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%,d tabs, %d threads: %,.0f ops/sec; getCurrentPage p50 %d ns, p99 %d ns, p99.9 %d ns%n",
+                    tabs, threads, total / (double) seconds,
+                    reads[reads.length / 2], reads[(int) (reads.length * 0.99)], reads[(int) (reads.length * 0.999)]);
+
+            long evictedWhileBusy = service.getEvictedTabs();
+
+            // Phase 2: keep only the first half of the tabs busy and let the rest go idle
+            long busyUntil = System.currentTimeMillis() + idleTimeoutMillis * 4;
+            while (System.currentTimeMillis() < busyUntil) {
+                for (int i = 0; i < tabs / 2; i++) {
+                    service.getCurrentPage(keys[i]);
+                }
+                TimeUnit.MILLISECONDS.sleep(200);
+            }
+            System.out.printf("Idle eviction: %,d tabs left, %,d evicted (expected %,d; %,d evicted during phase 1)%n",
+                    service.tabCount(), service.getEvictedTabs() - evictedWhileBusy, tabs - tabs / 2, evictedWhileBusy);
+        }
+    }
+}
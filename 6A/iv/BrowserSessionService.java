@@ -0,0 +1,217 @@
+package iv;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Browser history for many concurrent sessions and tabs.
+// Tabs live in a fixed set of map stripes; each tab serialises its own navigation and
+// publishes the current page through a volatile field, so getCurrentPage never locks.
+// A background sweeper evicts tabs that have been idle longer than the timeout.
+public class BrowserSessionService implements AutoCloseable {
+    private static final int STRIPES = 64;
+    private static final long TOUCH_GRANULARITY_MILLIS = 1_000;
+
+    public static final class TabKey {
+        final String sessionId;
+        final String tabId;
+        private final int hash;
+
+        public TabKey(String sessionId, String tabId) {
+            this.sessionId = sessionId;
+            this.tabId = tabId;
+            this.hash = 31 * sessionId.hashCode() + tabId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TabKey)) {
+                return false;
+            }
+            TabKey other = (TabKey) o;
+            return hash == other.hash && sessionId.equals(other.sessionId) && tabId.equals(other.tabId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return sessionId + "/" + tabId;
+        }
+    }
+
+    // One tab's history; also usable directly as a BrowserInterface
+    private static final class Tab implements BrowserInterface {
+        private final CompactBrowserHistory history;
+        private volatile String currentPage;
+        private volatile long lastAccessMillis;
+
+        Tab(int capacity) {
+            this.history = new CompactBrowserHistory(capacity);
+            this.lastAccessMillis = System.currentTimeMillis();
+        }
+
+        @Override
+        public synchronized void addPage(String page) {
+            history.addPage(page);
+            publish();
+        }
+
+        @Override
+        public synchronized boolean goBack() {
+            boolean moved = history.goBack();
+            publish();
+            return moved;
+        }
+
+        @Override
+        public synchronized boolean goForward() {
+            boolean moved = history.goForward();
+            publish();
+            return moved;
+        }
+
+        @Override
+        public String getCurrentPage() {
+            touch();
+            return currentPage;
+        }
+
+        @Override
+        public synchronized String peekBack() {
+            return history.peekBack();
+        }
+
+        @Override
+        public synchronized String peekForward() {
+            return history.peekForward();
+        }
+
+        private void publish() {
+            currentPage = history.getCurrentPage();
+            touch();
+        }
+
+        // Only write the timestamp when it has moved noticeably, so busy readers do not contend on it
+        private void touch() {
+            long now = System.currentTimeMillis();
+            if (now - lastAccessMillis >= TOUCH_GRANULARITY_MILLIS) {
+                lastAccessMillis = now;
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<TabKey, Tab>[] stripes;
+    private final int historyCapacity;
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService sweeper;
+    private final LongAdder evicted = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BrowserSessionService(int historyCapacity, long idleTimeout, TimeUnit unit) {
+        this.historyCapacity = historyCapacity;
+        this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tab-eviction");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(TOUCH_GRANULARITY_MILLIS, idleTimeoutMillis / 4);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Return the tab's history, creating it on first use
+    public BrowserInterface openTab(TabKey key) {
+        return stripe(key).computeIfAbsent(key, k -> new Tab(historyCapacity));
+    }
+
+    // Return the tab's history, or null if it was never opened, closed or evicted
+    public BrowserInterface getTab(TabKey key) {
+        return stripe(key).get(key);
+    }
+
+    public void addPage(TabKey key, String page) {
+        openTab(key).addPage(page);
+    }
+
+    public void goBack(TabKey key) {
+        Tab tab = stripe(key).get(key);
+        if (tab != null) {
+            tab.goBack();
+        }
+    }
+
+    public void goForward(TabKey key) {
+        Tab tab = stripe(key).get(key);
+        if (tab != null) {
+            tab.goForward();
+        }
+    }
+
+    public String getCurrentPage(TabKey key) {
+        Tab tab = stripe(key).get(key);
+        return tab == null ? null : tab.getCurrentPage();
+    }
+
+    public boolean closeTab(TabKey key) {
+        return stripe(key).remove(key) != null;
+    }
+
+    // Close every tab of a session; walks all stripes, so meant for logout rather than hot paths
+    public int closeSession(String sessionId) {
+        int closed = 0;
+        for (ConcurrentHashMap<TabKey, Tab> stripe : stripes) {
+            int before = stripe.size();
+            stripe.keySet().removeIf(key -> key.sessionId.equals(sessionId));
+            closed += before - stripe.size();
+        }
+        return closed;
+    }
+
+    public int tabCount() {
+        int total = 0;
+        for (ConcurrentHashMap<TabKey, Tab> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    public long getEvictedTabs() {
+        return evicted.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    // Remove tabs idle past the timeout; remove(key, tab) leaves a tab alone if it was replaced meanwhile.
+    // Timestamps can lag by up to the touch granularity, which is added to the timeout.
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis - TOUCH_GRANULARITY_MILLIS;
+        for (ConcurrentHashMap<TabKey, Tab> stripe : stripes) {
+            stripe.forEach((key, tab) -> {
+                if (tab.lastAccessMillis - cutoff < 0 && stripe.remove(key, tab)) {
+                    evicted.increment();
+                }
+            });
+        }
+    }
+
+    private ConcurrentHashMap<TabKey, Tab> stripe(TabKey key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,105 @@
+package iv;
+
+import java.util.Arrays;
+
+// Bounded browser history. Entries are URL ids in a circular int buffer laid out as
+// [oldest back page ... current ... newest forward page]; once the cap is reached the oldest
+// back page is dropped. Opening a page just moves the end of the buffer to the current
+// position, so the forward pages are discarded in O(1): their slots keep their references
+// until the buffer wraps around and overwrites them. The buffer starts small and grows
+// up to the cap, so short histories stay cheap.
+public class CompactBrowserHistory implements BrowserInterface {
+    public static final int DEFAULT_CAPACITY = 1_000;
+    private static final int INITIAL_SLOTS = 8;
+
+    private final UrlInternTable urls;
+    private final int capacity;
+    private int[] ring;
+    private int start;      // ring index of the oldest entry
+    private int size;       // live entries, back + current + forward
+    private int current = -1; // offset of the current page from start
+    private int written;    // slots that hold a reference (live or stale)
+
+    public CompactBrowserHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CompactBrowserHistory(int capacity) {
+        this(capacity, new UrlInternTable());
+    }
+
+    public CompactBrowserHistory(int capacity, UrlInternTable urls) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ring = new int[Math.min(capacity, INITIAL_SLOTS)];
+        this.urls = urls;
+    }
+
+    @Override
+    public void addPage(String page) {
+        size = current + 1; // truncate the forward pages
+        if (size == ring.length && size < capacity) {
+            // Still filling the first lap (start is 0), so the entries are in order
+            ring = Arrays.copyOf(ring, Math.min(capacity, size * 2));
+        }
+        if (size == capacity) {
+            start = (start + 1) % ring.length;
+            size--;
+        }
+        int slot = (start + size) % ring.length;
+        if (written == ring.length || slot < written) {
+            urls.release(ring[slot]); // reference left behind by an evicted or truncated entry
+        } else {
+            written++;
+        }
+        ring[slot] = urls.acquire(page);
+        current = size++;
+    }
+
+    @Override
+    public boolean goBack() {
+        if (current <= 0) {
+            return false;
+        }
+        current--;
+        return true;
+    }
+
+    @Override
+    public boolean goForward() {
+        if (current >= size - 1) {
+            return false;
+        }
+        current++;
+        return true;
+    }
+
+    @Override
+    public String getCurrentPage() {
+        return current < 0 ? null : urls.get(ring[(start + current) % ring.length]);
+    }
+
+    @Override
+    public String peekBack() {
+        return current > 0 ? urls.get(ring[(start + current - 1) % ring.length]) : null;
+    }
+
+    @Override
+    public String peekForward() {
+        return current < size - 1 ? urls.get(ring[(start + current + 1) % ring.length]) : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int distinctUrls() {
+        return urls.size();
+    }
+}
@@ -0,0 +1,18 @@
+package iv;
+
+import java.util.List;
+
+// Decides which cached pages to keep within a byte budget.
+// Implementations are not thread-safe; PageCache calls them under its own lock.
+public interface EvictionPolicy {
+    // A cached page was read
+    void recordAccess(String url);
+
+    // A page was loaded; returns the URLs to drop, which may include the new page if it is not admitted
+    List<String> add(String url, int bytes);
+
+    // A page was removed from the cache by other means
+    void remove(String url);
+
+    long bytes();
+}
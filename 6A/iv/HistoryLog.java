@@ -0,0 +1,367 @@
+package iv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Append-only, time-ordered log of page visits with a sparse time index.
+// Log records are varints: a visit is (millis since the previous record, url length, url bytes);
+// a bucket marker (bucket start millis, 0) opens every time bucket, so decoding can start at any
+// marker. The index file holds one (bucket start, marker offset) pair per bucket and can always be
+// rebuilt from the markers. Queries seek through the index and read the log through memory-mapped
+// windows, so only the part of the file that is actually paged through gets touched.
+public class HistoryLog implements AutoCloseable {
+    public static final long DEFAULT_BUCKET_MILLIS = 60 * 60 * 1000L;
+    private static final int MAX_URL_BYTES = 0xFFFF;
+    private static final long WINDOW_BYTES = 16L << 20;
+
+    public static class Visit {
+        public final long timestampMillis;
+        public final String url;
+
+        Visit(long timestampMillis, String url) {
+            this.timestampMillis = timestampMillis;
+            this.url = url;
+        }
+
+        @Override
+        public String toString() {
+            return timestampMillis + " " + url;
+        }
+    }
+
+    private final long bucketMillis;
+    private final FileChannel log;
+    private final FileChannel index;
+    private final ByteBuffer pendingLog = ByteBuffer.allocateDirect(64 * 1024);
+    private final ByteBuffer pendingIndex = ByteBuffer.allocateDirect(4 * 1024);
+    private long[] bucketStarts = new long[64];
+    private long[] bucketOffsets = new long[64];
+    private int buckets;
+    private long flushedBytes;  // log bytes handed to the file; queries read up to here
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long currentBucket = Long.MIN_VALUE;
+
+    public HistoryLog(Path file) throws IOException {
+        this(file, DEFAULT_BUCKET_MILLIS);
+    }
+
+    public HistoryLog(Path file, long bucketMillis) throws IOException {
+        this.bucketMillis = bucketMillis;
+        this.log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(Paths.get(file + ".idx"), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        recover();
+    }
+
+    // Record a visit; timestamps earlier than the last one are clamped to keep the log ordered
+    public synchronized void append(long timestampMillis, String url) {
+        byte[] bytes = url.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > MAX_URL_BYTES) {
+            throw new IllegalArgumentException("URL must be 1-" + MAX_URL_BYTES + " bytes: " + bytes.length);
+        }
+        long timestamp = Math.max(timestampMillis, lastTimestamp);
+        long bucketStart = Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+        try {
+            if (bucketStart != currentBucket) {
+                ensureRoom(20);
+                addBucket(bucketStart, flushedBytes + pendingLog.position());
+                if (pendingIndex.remaining() < 16) {
+                    flush();
+                }
+                pendingIndex.putLong(bucketStart).putLong(flushedBytes + pendingLog.position());
+                putVarint(pendingLog, bucketStart);
+                putVarint(pendingLog, 0);
+                currentBucket = bucketStart;
+                lastTimestamp = bucketStart;
+            }
+            ensureRoom(20 + bytes.length);
+            putVarint(pendingLog, timestamp - lastTimestamp);
+            putVarint(pendingLog, bytes.length);
+            pendingLog.put(bytes);
+            lastTimestamp = timestamp;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Hand buffered records to the OS; they survive a process exit from here on
+    public synchronized void flush() throws IOException {
+        pendingLog.flip();
+        while (pendingLog.hasRemaining()) {
+            flushedBytes += log.write(pendingLog, flushedBytes);
+        }
+        pendingLog.clear();
+        // Index entries go after the log bytes they point at
+        pendingIndex.flip();
+        while (pendingIndex.hasRemaining()) {
+            index.write(pendingIndex, index.size());
+        }
+        pendingIndex.clear();
+    }
+
+    // Flush and force to the storage device
+    public synchronized void sync() throws IOException {
+        flush();
+        log.force(false);
+        index.force(false);
+    }
+
+    // Visits with from <= timestamp < to, oldest first, read lazily
+    public Iterator<Visit> range(long fromMillis, long toMillis) throws IOException {
+        return search(null, fromMillis, toMillis);
+    }
+
+    // Visits in the range whose URL starts with the prefix (null matches everything)
+    public synchronized Iterator<Visit> search(String prefix, long fromMillis, long toMillis) throws IOException {
+        flush();
+        int bucket = floorBucket(fromMillis);
+        long start = bucket < 0 ? 0 : bucketOffsets[bucket];
+        byte[] prefixBytes = prefix == null ? null : prefix.getBytes(StandardCharsets.UTF_8);
+        return new VisitIterator(start, flushedBytes, prefixBytes, fromMillis, toMillis);
+    }
+
+    // The most recent visits, oldest first
+    public synchronized List<Visit> recent(int limit) throws IOException {
+        flush();
+        List<Visit> result = new ArrayList<>();
+        long end = flushedBytes;
+        for (int bucket = buckets - 1; bucket >= 0 && result.size() < limit; bucket--) {
+            List<Visit> visits = new ArrayList<>();
+            new VisitIterator(bucketOffsets[bucket], end, null, Long.MIN_VALUE, Long.MAX_VALUE)
+                    .forEachRemaining(visits::add);
+            result.addAll(0, visits);
+            end = bucketOffsets[bucket];
+        }
+        return new ArrayList<>(result.subList(Math.max(0, result.size() - limit), result.size()));
+    }
+
+    public synchronized long sizeBytes() {
+        return flushedBytes + pendingLog.position();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        log.close();
+        index.close();
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (pendingLog.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void addBucket(long bucketStart, long offset) {
+        if (buckets == bucketStarts.length) {
+            bucketStarts = Arrays.copyOf(bucketStarts, buckets * 2);
+            bucketOffsets = Arrays.copyOf(bucketOffsets, buckets * 2);
+        }
+        bucketStarts[buckets] = bucketStart;
+        bucketOffsets[buckets++] = offset;
+    }
+
+    // Index of the last bucket starting at or before the time, or -1
+    private int floorBucket(long millis) {
+        int low = 0;
+        int high = buckets - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bucketStarts[mid] <= millis) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Load the index, then rescan from the last indexed bucket: this re-indexes buckets whose
+    // index entries were lost and cuts off a torn record at the end of the log
+    private void recover() throws IOException {
+        long logSize = log.size();
+        ByteBuffer entries = ByteBuffer.allocate((int) (index.size() / 16 * 16));
+        while (entries.hasRemaining() && index.read(entries, entries.position()) > 0) {
+        }
+        entries.flip();
+        while (entries.remaining() >= 16) {
+            long bucketStart = entries.getLong();
+            long offset = entries.getLong();
+            if (offset >= logSize || (buckets > 0 && offset <= bucketOffsets[buckets - 1])) {
+                break;
+            }
+            addBucket(bucketStart, offset);
+        }
+        long position = buckets == 0 ? 0 : bucketOffsets[buckets - 1];
+        int indexed = buckets;
+        if (buckets > 0) {
+            buckets--; // re-added when the scan reads its marker
+        }
+        long validEnd = position;
+        if (logSize > position) {
+            MappedByteBuffer data = log.map(FileChannel.MapMode.READ_ONLY, position, logSize - position);
+            long timestamp = 0;
+            while (data.hasRemaining()) {
+                int recordStart = data.position();
+                long first = getVarint(data);
+                long length = first < 0 ? -1 : getVarint(data);
+                if (length < 0 || length > data.remaining()) {
+                    break; // torn tail
+                }
+                if (length == 0) {
+                    addBucket(first, position + recordStart);
+                    currentBucket = first;
+                    timestamp = first;
+                } else {
+                    timestamp += first;
+                    data.position(data.position() + (int) length);
+                }
+                lastTimestamp = timestamp;
+                validEnd = position + data.position();
+            }
+        }
+        if (validEnd < logSize) {
+            log.truncate(validEnd);
+        }
+        flushedBytes = validEnd;
+        // Rewrite the index if the scan found buckets it was missing or dropped bad entries
+        if (buckets != indexed || index.size() != (long) buckets * 16) {
+            ByteBuffer rebuilt = ByteBuffer.allocate(buckets * 16);
+            for (int i = 0; i < buckets; i++) {
+                rebuilt.putLong(bucketStarts[i]).putLong(bucketOffsets[i]);
+            }
+            rebuilt.flip();
+            index.truncate(0);
+            while (rebuilt.hasRemaining()) {
+                index.write(rebuilt, rebuilt.position());
+            }
+        }
+    }
+
+    // Walks the log through read-only mapped windows, decoding only what it returns
+    private final class VisitIterator implements Iterator<Visit> {
+        private final long end;
+        private final byte[] prefix;
+        private final long from;
+        private final long to;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+        private long timestamp;
+        private Visit next;
+        private boolean done;
+
+        VisitIterator(long start, long end, byte[] prefix, long from, long to) {
+            this.position = start;
+            this.end = end;
+            this.prefix = prefix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = advance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Visit next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Visit visit = next;
+            next = null;
+            return visit;
+        }
+
+        private Visit advance() throws IOException {
+            while (position < end) {
+                // A record is at most 20 header bytes plus the URL; remap when it may cross the window
+                if (window == null || position + 20 + MAX_URL_BYTES > windowStart + window.capacity()
+                        && windowStart + window.capacity() < end) {
+                    windowStart = position;
+                    window = log.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_BYTES, end - windowStart));
+                }
+                window.position((int) (position - windowStart));
+                long first = getVarint(window);
+                int length = (int) getVarint(window);
+                int urlStart = window.position();
+                position = windowStart + urlStart + length;
+                if (length == 0) {
+                    timestamp = first;
+                    continue;
+                }
+                timestamp += first;
+                if (timestamp >= to) {
+                    position = end;
+                    return null;
+                }
+                if (timestamp < from || (prefix != null && !startsWith(window, urlStart, length))) {
+                    continue;
+                }
+                byte[] url = new byte[length];
+                window.get(urlStart, url);
+                return new Visit(timestamp, new String(url, StandardCharsets.UTF_8));
+            }
+            return null;
+        }
+
+        private boolean startsWith(ByteBuffer data, int offset, int length) {
+            if (length < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (data.get(offset + i) != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    // Returns -1 if the buffer ends in the middle of the varint
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
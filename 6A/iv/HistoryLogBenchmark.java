@@ -0,0 +1,84 @@
+package iv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Writes a year of browsing history to a HistoryLog, reopens it, and times typical queries.
+// Usage: java iv.HistoryLogBenchmark [visitsPerDay]
+public class HistoryLogBenchmark {
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final String[] SITES = {
+        "https://news.example.com/", "https://docs.example.org/", "https://shop.example.net/",
+        "https://mail.example.com/", "https://video.example.tv/", "https://wiki.example.org/"
+    };
+
+    public static void main(String[] args) throws IOException {
+        int visitsPerDay = args.length > 0 ? Integer.parseInt(args[0]) : 3_000;
+        Path file = Files.createTempFile("history", ".log");
+        long yearStart = System.currentTimeMillis() - 365 * DAY;
+        SplittableRandom random = new SplittableRandom(5);
+
+        long start = System.nanoTime();
+        long visits = 0;
+        try (HistoryLog log = new HistoryLog(file)) {
+            for (int day = 0; day < 365; day++) {
+                for (int i = 0; i < visitsPerDay; i++, visits++) {
+                    long timestamp = yearStart + day * DAY + (long) i * DAY / visitsPerDay;
+                    log.append(timestamp, SITES[random.nextInt(SITES.length)] + "article/" + random.nextInt(1_000_000));
+                }
+            }
+        }
+        long writeNanos = System.nanoTime() - start;
+        System.out.printf("Wrote %,d visits in %d ms (%,.0f visits/sec), log %.1f MB (%.1f bytes/visit)%n",
+                visits, writeNanos / 1_000_000, visits * 1e9 / writeNanos, Files.size(file) / 1e6,
+                Files.size(file) / (double) visits);
+
+        try (HistoryLog log = new HistoryLog(file)) {
+            long yesterday = yearStart + 364 * DAY;
+            for (int round = 0; round < 3; round++) {
+                time("reopen + last 50 visits", () -> log.recent(50).size());
+                time("range: yesterday", () -> count(log.range(yesterday, yesterday + DAY)));
+                time("range: one hour, a month ago", () -> count(log.range(yesterday - 30 * DAY, yesterday - 30 * DAY + DAY / 24)));
+                time("prefix: docs, last 7 days", () -> count(log.search(SITES[1], yesterday - 6 * DAY, yesterday + DAY)));
+                time("prefix: docs, whole year", () -> count(log.search(SITES[1], Long.MIN_VALUE, Long.MAX_VALUE)));
+                time("first page of 100: shop, whole year", () -> first(log.search(SITES[2], Long.MIN_VALUE, Long.MAX_VALUE), 100));
+                System.out.println();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + ".idx"));
+        }
+    }
+
+    interface Query {
+        int run() throws IOException;
+    }
+
+    private static void time(String name, Query query) throws IOException {
+        long start = System.nanoTime();
+        int results = query.run();
+        System.out.printf("%-38s %,9d results %8.2f ms%n", name, results, (System.nanoTime() - start) / 1e6);
+    }
+
+    private static int count(Iterator<HistoryLog.Visit> visits) {
+        int count = 0;
+        while (visits.hasNext()) {
+            visits.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static int first(Iterator<HistoryLog.Visit> visits, int limit) {
+        int count = 0;
+        while (count < limit && visits.hasNext()) {
+            visits.next();
+            count++;
+        }
+        return count;
+    }
+}
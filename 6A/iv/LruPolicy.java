@@ -0,0 +1,56 @@
+package iv;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Evicts the least recently used pages until the cache fits its byte budget
+public class LruPolicy implements EvictionPolicy {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Integer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    public LruPolicy(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void recordAccess(String url) {
+        entries.get(url);
+    }
+
+    @Override
+    public List<String> add(String url, int size) {
+        List<String> evicted = new ArrayList<>();
+        remove(url); // a re-added page replaces its old entry, even if the new one is rejected
+        if (size > maxBytes) {
+            evicted.add(url);
+            return evicted;
+        }
+        entries.put(url, size);
+        bytes += size;
+        Iterator<Map.Entry<String, Integer>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<String, Integer> entry = eldest.next();
+            bytes -= entry.getValue();
+            evicted.add(entry.getKey());
+            eldest.remove();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void remove(String url) {
+        Integer size = entries.remove(url);
+        if (size != null) {
+            bytes -= size;
+        }
+    }
+
+    @Override
+    public long bytes() {
+        return bytes;
+    }
+}
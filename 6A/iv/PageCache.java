@@ -0,0 +1,186 @@
+package iv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Page content cache keyed by URL with a pluggable eviction policy and a byte budget.
+// Loads happen outside the cache lock; concurrent requests for the same URL share one load.
+// With zero prefetch threads, or once the cache is closed, prefetch requests are ignored.
+public class PageCache implements AutoCloseable {
+    private final PageLoader loader;
+    private final EvictionPolicy policy;
+    private final HashMap<String, byte[]> pages = new HashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService prefetchers;
+    private volatile boolean closed;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PageCache(PageLoader loader, EvictionPolicy policy, int prefetchThreads) {
+        this.loader = loader;
+        this.policy = policy;
+        AtomicInteger count = new AtomicInteger();
+        this.prefetchers = prefetchThreads == 0 ? null : Executors.newFixedThreadPool(prefetchThreads, r -> {
+            Thread t = new Thread(r, "page-prefetch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Return the page, loading it on a miss (or waiting for a prefetch already under way)
+    public byte[] get(String url) {
+        synchronized (this) {
+            byte[] page = pages.get(url);
+            if (page != null) {
+                policy.recordAccess(url);
+                hits.increment();
+                return page;
+            }
+        }
+        misses.increment();
+        CompletableFuture<byte[]> load = inFlight.get(url);
+        if (load == null) {
+            CompletableFuture<byte[]> mine = new CompletableFuture<>();
+            load = inFlight.putIfAbsent(url, mine);
+            if (load == null) {
+                return complete(url, mine); // load on the caller's thread
+            }
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // Start loading a page in the background unless it is cached or already loading
+    public void prefetch(String url) {
+        if (prefetchers == null || closed || url == null || contains(url) || inFlight.containsKey(url)) {
+            return;
+        }
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(url, mine) != null) {
+            return;
+        }
+        prefetches.increment();
+        Prefetch task = new Prefetch(url, mine);
+        try {
+            prefetchers.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(); // closed concurrently
+        }
+    }
+
+    public synchronized boolean contains(String url) {
+        return pages.containsKey(url);
+    }
+
+    public synchronized void invalidate(String url) {
+        if (pages.remove(url) != null) {
+            policy.remove(url);
+        }
+    }
+
+    public synchronized long bytesCached() {
+        return policy.bytes();
+    }
+
+    public synchronized int pageCount() {
+        return pages.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public String metricsSummary() {
+        return String.format("hit_ratio=%.3f hits=%d misses=%d prefetches=%d evictions=%d pages=%d bytes=%d",
+                hitRatio(), getHits(), getMisses(), prefetches.sum(), evictions.sum(), pageCount(), bytesCached());
+    }
+
+    // Queued prefetches are dropped; anyone waiting on one gets an IllegalStateException
+    @Override
+    public void close() {
+        closed = true;
+        if (prefetchers != null) {
+            for (Runnable queued : prefetchers.shutdownNow()) {
+                ((Prefetch) queued).cancel();
+            }
+        }
+    }
+
+    private byte[] complete(String url, CompletableFuture<byte[]> future) {
+        try {
+            byte[] page = loader.load(url);
+            store(url, page);
+            future.complete(page);
+            return page;
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException(e);
+            future.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(url, future);
+        }
+    }
+
+    private final class Prefetch implements Runnable {
+        private final String url;
+        private final CompletableFuture<byte[]> future;
+
+        Prefetch(String url, CompletableFuture<byte[]> future) {
+            this.url = url;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                complete(url, future);
+            } catch (RuntimeException e) {
+                // the failure is handed to anyone waiting on the future
+            }
+        }
+
+        void cancel() {
+            inFlight.remove(url, future);
+            future.completeExceptionally(new IllegalStateException("Page cache closed before prefetching " + url));
+        }
+    }
+
+    private synchronized void store(String url, byte[] page) {
+        pages.put(url, page);
+        List<String> evicted = policy.add(url, page.length);
+        for (String victim : evicted) {
+            pages.remove(victim);
+        }
+        evictions.add(evicted.size());
+    }
+}
@@ -0,0 +1,94 @@
+package iv;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Hit ratio of LRU and W-TinyLFU page caches on a browsing trace with popular pages,
+// back/forward moves and occasional one-off crawls; then back/forward latency with and
+// without neighbour prefetching against a slow loader.
+// Usage: java iv.PageCacheBenchmark [navigations] [distinctUrls]
+public class PageCacheBenchmark {
+    public static void main(String[] args) {
+        int navigations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        System.out.println("cache MB   policy        hit ratio   loads");
+        for (int megabytes : new int[] {8, 32, 128}) {
+            long budget = megabytes * 1024L * 1024;
+            hitRatio(megabytes, "LRU", new LruPolicy(budget), navigations, distinct);
+            hitRatio(megabytes, "W-TinyLFU", new WTinyLfuPolicy(budget, distinct), navigations, distinct);
+        }
+
+        System.out.println();
+        System.out.println("loader latency 20ms +/- 10ms, 32MB W-TinyLFU cache");
+        backForward(false, distinct);
+        backForward(true, distinct);
+    }
+
+    private static void hitRatio(int megabytes, String name, EvictionPolicy policy, int navigations, int distinct) {
+        SimulatedPageLoader loader = new SimulatedPageLoader(0, 0, TimeUnit.MILLISECONDS);
+        try (PageCache cache = new PageCache(loader, policy, 0)) {
+            Browser browser = new Browser(new CompactBrowserHistory(), cache);
+            drive(browser, new SplittableRandom(7), navigations, distinct);
+            System.out.printf("%8d   %-12s %10.3f %7d%n", megabytes, name, cache.hitRatio(), loader.getLoads());
+        }
+    }
+
+    // A restored session: the history is known but nothing is loaded yet, and the user walks back through it
+    private static void backForward(boolean prefetch, int distinct) {
+        SimulatedPageLoader loader = new SimulatedPageLoader(20, 10, TimeUnit.MILLISECONDS);
+        try (PageCache cache = new PageCache(loader, new WTinyLfuPolicy(32L << 20, distinct), prefetch ? 4 : 0)) {
+            SplittableRandom random = new SplittableRandom(11);
+            Browser browser = null;
+            for (int session = 0; session < 3; session++) {
+                CompactBrowserHistory history = new CompactBrowserHistory();
+                for (int i = 0; i < 30; i++) {
+                    history.addPage(url(random, distinct));
+                }
+                browser = new Browser(history, cache);
+                for (int i = 0; i < 29; i++) {
+                    browser.goBack();
+                    pause(); // reading the page
+                }
+                for (int i = 0; i < 29; i++) {
+                    browser.goForward();
+                    pause();
+                }
+            }
+            System.out.printf("prefetch %-3s  back/forward avg %6.2f ms, max %6.2f ms; %s%n", prefetch ? "on" : "off",
+                    browser.getAverageBackForwardMillis(), browser.getMaxBackForwardMillis(), cache.metricsSummary());
+        }
+    }
+
+    private static void drive(Browser browser, SplittableRandom random, int navigations, int distinct) {
+        for (int i = 0; i < navigations; i++) {
+            int op = random.nextInt(100);
+            if (op < 1) {
+                // A crawl: a run of pages nobody will visit again
+                for (int j = 0; j < 50; j++) {
+                    browser.addPage("https://crawl.example.com/" + i + "/" + j);
+                }
+            } else if (op < 60) {
+                browser.addPage(url(random, distinct));
+            } else if (op < 85) {
+                browser.goBack();
+            } else {
+                browser.goForward();
+            }
+        }
+    }
+
+    // Skewed popularity: low page numbers are visited far more often
+    private static String url(SplittableRandom random, int distinct) {
+        double u = random.nextDouble();
+        return "https://example.com/page/" + (int) (u * u * u * distinct);
+    }
+
+    private static void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(40);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package iv;
+
+import java.io.IOException;
+
+// Fetches the content of a page
+public interface PageLoader {
+    byte[] load(String url) throws IOException;
+}
@@ -0,0 +1,67 @@
+package iv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+// Decorator that appends every opened page to a HistoryLog and, when created, restores the
+// most recent pages from the log into the wrapped history
+public class PersistentBrowserHistory implements BrowserInterface {
+    public static final int RESTORED_PAGES = 50;
+
+    private final BrowserInterface history;
+    private final HistoryLog log;
+
+    public PersistentBrowserHistory(BrowserInterface history, HistoryLog log) throws IOException {
+        this.history = history;
+        this.log = log;
+        for (HistoryLog.Visit visit : log.recent(RESTORED_PAGES)) {
+            history.addPage(visit.url);
+        }
+    }
+
+    @Override
+    public void addPage(String page) {
+        history.addPage(page);
+        log.append(System.currentTimeMillis(), page);
+        try {
+            log.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean goBack() {
+        return history.goBack();
+    }
+
+    @Override
+    public boolean goForward() {
+        return history.goForward();
+    }
+
+    @Override
+    public String getCurrentPage() {
+        return history.getCurrentPage();
+    }
+
+    @Override
+    public String peekBack() {
+        return history.peekBack();
+    }
+
+    @Override
+    public String peekForward() {
+        return history.peekForward();
+    }
+
+    // Pages visited in [fromMillis, toMillis), e.g. "yesterday"
+    public Iterator<HistoryLog.Visit> visitedBetween(long fromMillis, long toMillis) throws IOException {
+        return log.range(fromMillis, toMillis);
+    }
+
+    public Iterator<HistoryLog.Visit> search(String urlPrefix, long fromMillis, long toMillis) throws IOException {
+        return log.search(urlPrefix, fromMillis, toMillis);
+    }
+}
@@ -0,0 +1,46 @@
+package iv;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Local stand-in for the network: every load waits a base latency plus random jitter and
+// returns deterministic content whose size (2KB-64KB) depends on the URL.
+public class SimulatedPageLoader implements PageLoader {
+    private static final int MIN_BYTES = 2 * 1024;
+    private static final int MAX_BYTES = 64 * 1024;
+
+    private final long latencyMicros;
+    private final long jitterMicros;
+    private final LongAdder loads = new LongAdder();
+
+    public SimulatedPageLoader(long latency, long jitter, TimeUnit unit) {
+        this.latencyMicros = unit.toMicros(latency);
+        this.jitterMicros = unit.toMicros(jitter);
+    }
+
+    @Override
+    public byte[] load(String url) throws IOException {
+        loads.increment();
+        long wait = latencyMicros + (jitterMicros > 0 ? ThreadLocalRandom.current().nextLong(jitterMicros + 1) : 0);
+        if (wait > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading " + url, e);
+            }
+        }
+        return new byte[sizeOf(url)];
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    static int sizeOf(String url) {
+        int h = url.hashCode() * 0x9E3779B9;
+        return MIN_BYTES + (h >>> 1) % (MAX_BYTES - MIN_BYTES);
+    }
+}
@@ -0,0 +1,105 @@
+package iv;
+
+import java.util.Arrays;
+
+// Deduplicating, reference-counted URL table. Each distinct URL is stored once and
+// referred to by a small int id; ids are recycled once the last reference is released.
+// Lookup is an open-addressing hash table of ids (linear probing, backward-shift delete).
+public class UrlInternTable {
+    private String[] urls = new String[16];
+    private int[] refCounts = new int[16];
+    private int[] slots = new int[32]; // id + 1, 0 = empty
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int size;
+
+    // Intern a URL and take a reference to it
+    public int acquire(String url) {
+        int mask = slots.length - 1;
+        for (int i = url.hashCode() * 0x9E3779B9 >>> 1 & mask; ; i = (i + 1) & mask) {
+            int id = slots[i] - 1;
+            if (id < 0) {
+                id = allocate(url);
+                slots[i] = id + 1;
+                if (++size * 2 > slots.length) {
+                    rehash(slots.length * 2);
+                }
+                return id;
+            }
+            if (urls[id].equals(url)) {
+                refCounts[id]++;
+                return id;
+            }
+        }
+    }
+
+    // Drop a reference; the URL is forgotten when nothing refers to it any more
+    public void release(int id) {
+        if (--refCounts[id] > 0) {
+            return;
+        }
+        int mask = slots.length - 1;
+        int hole = home(urls[id], mask);
+        while (slots[hole] != id + 1) {
+            hole = (hole + 1) & mask;
+        }
+        slots[hole] = 0;
+        for (int j = (hole + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int k = home(urls[slots[j] - 1], mask);
+            // Move the entry back if the hole lies between its home slot and where it sits now
+            if (((j - k) & mask) >= ((j - hole) & mask)) {
+                slots[hole] = slots[j];
+                slots[j] = 0;
+                hole = j;
+            }
+        }
+        urls[id] = null;
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    public String get(int id) {
+        return urls[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int allocate(String url) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == urls.length) {
+                urls = Arrays.copyOf(urls, id * 2);
+                refCounts = Arrays.copyOf(refCounts, id * 2);
+                freeIds = Arrays.copyOf(freeIds, id * 2);
+            }
+        }
+        urls[id] = url;
+        refCounts[id] = 1;
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int i = home(urls[entry - 1], mask);
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = entry;
+            }
+        }
+    }
+
+    private static int home(String url, int mask) {
+        return url.hashCode() * 0x9E3779B9 >>> 1 & mask;
+    }
+}
@@ -0,0 +1,177 @@
+package iv;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Window TinyLFU: new pages enter a small LRU window (1% of the budget); when they leave it
+// they must beat the main region's eviction victim on estimated access frequency to be kept.
+// The main region is a segmented LRU (probation, then protected once re-read), and the
+// frequencies come from a count-min sketch that is halved periodically so it can forget.
+// One-off pages (scans, crawls) therefore cannot flush out pages that are read repeatedly.
+public class WTinyLfuPolicy implements EvictionPolicy {
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+    private static final int MAX_COUNT = 15;
+
+    private final long maxBytes;
+    private final long windowMax;
+    private final long mainMax;
+    private final long protectedMax;
+    private final LinkedHashMap<String, Integer> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Integer> probation = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, Integer> protectedPages = new LinkedHashMap<>(64, 0.75f, true);
+    private long windowBytes;
+    private long probationBytes;
+    private long protectedBytes;
+
+    // Count-min sketch: 4 rows of small counters
+    private final int[] sketch;
+    private final int sketchMask;
+    private final int resetAfter;
+    private int additions;
+
+    public WTinyLfuPolicy(long maxBytes, int expectedPages) {
+        this.maxBytes = maxBytes;
+        this.windowMax = Math.max(1, (long) (maxBytes * WINDOW_SHARE));
+        this.mainMax = maxBytes - windowMax;
+        this.protectedMax = (long) (mainMax * PROTECTED_SHARE);
+        int width = Integer.highestOneBit(Math.max(64, expectedPages) * 2 - 1);
+        this.sketch = new int[width * 4];
+        this.sketchMask = width - 1;
+        this.resetAfter = width * 10;
+    }
+
+    @Override
+    public void recordAccess(String url) {
+        increment(url);
+        if (window.get(url) != null) {
+            return; // LinkedHashMap access order moved it to the MRU end
+        }
+        Integer size = probation.remove(url);
+        if (size != null) {
+            probationBytes -= size;
+            protectedPages.put(url, size);
+            protectedBytes += size;
+            // Demote the oldest protected pages back to probation when protected overflows
+            Iterator<Map.Entry<String, Integer>> eldest = protectedPages.entrySet().iterator();
+            while (protectedBytes > protectedMax && eldest.hasNext()) {
+                Map.Entry<String, Integer> entry = eldest.next();
+                if (entry.getKey().equals(url)) {
+                    break;
+                }
+                protectedBytes -= entry.getValue();
+                probation.put(entry.getKey(), entry.getValue());
+                probationBytes += entry.getValue();
+                eldest.remove();
+            }
+            return;
+        }
+        protectedPages.get(url);
+    }
+
+    @Override
+    public List<String> add(String url, int size) {
+        List<String> evicted = new ArrayList<>();
+        remove(url);
+        increment(url);
+        if (size > maxBytes) {
+            evicted.add(url);
+            return evicted;
+        }
+        window.put(url, size);
+        windowBytes += size;
+        Iterator<Map.Entry<String, Integer>> eldest = window.entrySet().iterator();
+        while (windowBytes > windowMax && eldest.hasNext()) {
+            Map.Entry<String, Integer> candidate = eldest.next();
+            eldest.remove();
+            windowBytes -= candidate.getValue();
+            admitToMain(candidate.getKey(), candidate.getValue(), evicted);
+        }
+        return evicted;
+    }
+
+    @Override
+    public void remove(String url) {
+        Integer size;
+        if ((size = window.remove(url)) != null) {
+            windowBytes -= size;
+        } else if ((size = probation.remove(url)) != null) {
+            probationBytes -= size;
+        } else if ((size = protectedPages.remove(url)) != null) {
+            protectedBytes -= size;
+        }
+    }
+
+    @Override
+    public long bytes() {
+        return windowBytes + probationBytes + protectedBytes;
+    }
+
+    // Make room in the main region for a page leaving the window, or reject it
+    private void admitToMain(String url, int size, List<String> evicted) {
+        if (size > mainMax) {
+            evicted.add(url); // could never fit, even with the main region emptied
+            return;
+        }
+        int frequency = frequency(url);
+        while (probationBytes + protectedBytes + size > mainMax) {
+            LinkedHashMap<String, Integer> region = probation.isEmpty() ? protectedPages : probation;
+            Map.Entry<String, Integer> victim = region.entrySet().iterator().next();
+            if (frequency <= frequency(victim.getKey())) {
+                evicted.add(url);
+                return;
+            }
+            region.remove(victim.getKey());
+            if (region == probation) {
+                probationBytes -= victim.getValue();
+            } else {
+                protectedBytes -= victim.getValue();
+            }
+            evicted.add(victim.getKey());
+        }
+        probation.put(url, size);
+        probationBytes += size;
+    }
+
+    private void increment(String url) {
+        int h = spread(url.hashCode());
+        for (int row = 0; row < 4; row++) {
+            int index = row * (sketchMask + 1) + (indexOf(h, row));
+            if (sketch[index] < MAX_COUNT) {
+                sketch[index]++;
+            }
+        }
+        if (++additions == resetAfter) {
+            // Age every counter so old popularity fades
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] >>>= 1;
+            }
+            additions /= 2;
+        }
+    }
+
+    private int frequency(String url) {
+        int h = spread(url.hashCode());
+        int min = MAX_COUNT;
+        for (int row = 0; row < 4; row++) {
+            min = Math.min(min, sketch[row * (sketchMask + 1) + indexOf(h, row)]);
+        }
+        return min;
+    }
+
+    private int indexOf(int h, int row) {
+        h += row * 0x9E3779B9;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return h & sketchMask;
+    }
+
+    private static int spread(int h) {
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,132 @@
+package paging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Streams a collection in pages: each page is formatted into one reusable buffer and
+// written with a single write and a single flush, instead of one println per entry.
+public class PagedWriter {
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    // Appends one entry (without the line separator) to the page buffer
+    public interface LineFormatter<T> {
+        void format(int index, T item, StringBuilder line);
+    }
+
+    // Pull-style cursor over a collection, one page at a time
+    public static class Cursor<T> {
+        private final Iterator<T> items;
+        private final LineFormatter<T> formatter;
+        private final int pageSize;
+        private final StringBuilder page = new StringBuilder(8 * 1024);
+        private int index;
+
+        public Cursor(Iterator<T> items, LineFormatter<T> formatter, int pageSize) {
+            this.items = items;
+            this.formatter = formatter;
+            this.pageSize = pageSize;
+        }
+
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        // Index the next page will start at
+        public int position() {
+            return index;
+        }
+
+        // Format the next page into the reusable buffer and return it
+        public CharSequence nextPage() {
+            page.setLength(0);
+            for (int count = 0; count < pageSize && items.hasNext(); count++) {
+                formatter.format(index++, items.next(), page);
+                page.append(System.lineSeparator());
+            }
+            return page;
+        }
+
+        public int writePage(Writer out) throws IOException {
+            int start = index;
+            CharSequence text = nextPage();
+            out.append(text);
+            out.flush();
+            return index - start;
+        }
+    }
+
+    // Write every entry page by page; returns the number of entries written
+    public static <T> int write(Iterator<T> items, LineFormatter<T> formatter, Writer out, int pageSize)
+            throws IOException {
+        Cursor<T> cursor = new Cursor<>(items, formatter, pageSize);
+        int written = 0;
+        while (cursor.hasNext()) {
+            written += cursor.writePage(out);
+        }
+        return written;
+    }
+
+    // Same as above, encoding each page into a reusable direct buffer for a channel
+    public static <T> int write(Iterator<T> items, LineFormatter<T> formatter, WritableByteChannel out, int pageSize)
+            throws IOException {
+        Cursor<T> cursor = new Cursor<>(items, formatter, pageSize);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        ByteBuffer bytes = ByteBuffer.allocateDirect(64 * 1024);
+        int written = 0;
+        while (cursor.hasNext()) {
+            int start = cursor.position();
+            CharBuffer chars = CharBuffer.wrap(cursor.nextPage());
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, true);
+                if (result.isUnderflow()) {
+                    encoder.flush(bytes);
+                    break;
+                }
+                drain(bytes, out); // overflow: buffer full, write it and continue
+            }
+            drain(bytes, out);
+            written += cursor.position() - start;
+        }
+        return written;
+    }
+
+    // Print to System.out (whatever it currently is) a page at a time instead of one println per line.
+    // Pages are formatted outside System.out's lock, which is held only to write and flush each one.
+    public static <T> int print(Iterator<T> items, LineFormatter<T> formatter) {
+        PrintStream stdout = System.out;
+        Writer out = new BufferedWriter(new OutputStreamWriter(stdout), 64 * 1024);
+        Cursor<T> cursor = new Cursor<>(items, formatter, DEFAULT_PAGE_SIZE);
+        try {
+            while (cursor.hasNext()) {
+                CharSequence page = cursor.nextPage();
+                synchronized (stdout) {
+                    out.append(page);
+                    out.flush();
+                }
+            }
+            return cursor.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void drain(ByteBuffer bytes, WritableByteChannel out) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package paging;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-line println (as the CLIs do on an autoflushing console stream) versus paged output.
+// Writes to a temporary file so the terminal does not dominate the numbers.
+// Usage: java paging.PagedWriterBenchmark [lines]
+public class PagedWriterBenchmark {
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<String> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add("Task number " + i + " - review pull request");
+        }
+        PagedWriter.LineFormatter<String> formatter = (index, item, line) -> line.append(index).append(": ").append(item);
+        Path file = Files.createTempFile("paged", ".txt");
+
+        for (int round = 0; round < 2; round++) { // first round warms up
+            long start = System.nanoTime();
+            try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true, "UTF-8")) {
+                for (int i = 0; i < items.size(); i++) {
+                    out.println(i + ": " + items.get(i));
+                }
+            }
+            long perLine = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.toFile()), StandardCharsets.UTF_8), 64 * 1024)) {
+                PagedWriter.write(items.iterator(), formatter, out, PagedWriter.DEFAULT_PAGE_SIZE);
+            }
+            long pagedWriter = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                PagedWriter.write(items.iterator(), formatter, out, PagedWriter.DEFAULT_PAGE_SIZE);
+            }
+            long pagedChannel = System.nanoTime() - start;
+
+            if (round == 1) {
+                System.out.printf("%,d lines%n", lines);
+                System.out.printf("println per line:  %,12.0f lines/sec%n", lines * 1e9 / perLine);
+                System.out.printf("paged Writer:      %,12.0f lines/sec%n", lines * 1e9 / pagedWriter);
+                System.out.printf("paged channel:     %,12.0f lines/sec%n", lines * 1e9 / pagedChannel);
+            }
+        }
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,32 @@
+package tasks;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+// Shared plumbing for the task apps' "--batch [file]" mode: commands come from the file or
+// from stdin, no prompts are printed and all output goes through one buffered writer that
+// is flushed once per batch of commands rather than once per line.
+public final class BatchMode {
+    public static final String FLAG = "--batch";
+    public static final int BATCH_SIZE = 4096;
+
+    private BatchMode() {
+    }
+
+    public static boolean requested(String[] args) {
+        return args.length > 0 && args[0].equals(FLAG);
+    }
+
+    // Commands from the file named after the flag, or from stdin
+    public static CommandReader input(String[] args) throws FileNotFoundException {
+        return new CommandReader(args.length > 1 ? new FileInputStream(args[1]) : System.in);
+    }
+
+    // Buffered writer over System.out, so output is not flushed per line; the caller flushes it
+    public static PrintWriter output() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+    }
+}
@@ -0,0 +1,136 @@
+package tasks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+// Reads task commands in the same line format the interactive menus take (a choice, then
+// one line per argument). Numbers are parsed straight out of a 64KB byte buffer and only
+// descriptions become Strings, instead of Scanner's regex matching on every token.
+public class CommandReader implements Closeable {
+    private final InputStream in;
+    private final byte[] buffer = new byte[64 * 1024];
+    private byte[] lineBytes = new byte[256];
+    private int position;
+    private int limit;
+    private int line = 1;
+
+    public CommandReader(InputStream in) {
+        this.in = in;
+    }
+
+    // True if anything but whitespace is left
+    public boolean hasNext() {
+        while (fill()) {
+            byte b = buffer[position];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return true;
+            }
+            if (b == '\n') {
+                line++;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    // A number on a line of its own; blank lines before it are skipped
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Expected a number at line " + line);
+        }
+        boolean negative = buffer[position] == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (fill() && buffer[position] >= '0' && buffer[position] <= '9') {
+            if (value > (Long.MAX_VALUE - 9) / 10) {
+                throw new InputMismatchException("Number too large at line " + line);
+            }
+            value = value * 10 + (buffer[position++] - '0');
+            digits++;
+        }
+        // Only trailing blanks may follow the number
+        while (fill() && buffer[position] != '\n') {
+            byte b = buffer[position++];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                digits = 0;
+            }
+        }
+        if (digits == 0) {
+            throw new InputMismatchException("Expected a number at line " + line);
+        }
+        skipNewline();
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw new InputMismatchException("Number out of range at line " + (line - 1));
+        }
+        return (int) value;
+    }
+
+    // The rest of the current line, without the line separator
+    public String nextLine() {
+        if (!fill()) {
+            throw new NoSuchElementException("Expected a line at line " + line);
+        }
+        int length = 0;
+        while (fill() && buffer[position] != '\n') {
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            int count = position - start;
+            if (length + count > lineBytes.length) {
+                lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, lineBytes, length, count);
+            length += count;
+        }
+        skipNewline();
+        if (length > 0 && lineBytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void skipNewline() {
+        if (fill()) {
+            position++;
+            line++;
+        }
+    }
+
+    // Make sure at least one unread byte is buffered; false at end of input
+    private boolean fill() {
+        if (position < limit) {
+            return true;
+        }
+        try {
+            int read = in.read(buffer, 0, buffer.length);
+            while (read == 0) {
+                read = in.read(buffer, 0, buffer.length);
+            }
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
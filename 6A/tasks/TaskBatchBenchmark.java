@@ -0,0 +1,76 @@
+package tasks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Feeds the same command script to both task apps, once through the interactive Scanner
+// menu (stdin redirected from the script) and once with --batch, each in a fresh JVM with
+// output discarded, and reports commands per second. JVM start-up is measured separately with
+// an empty script and subtracted.
+// Usage: java tasks.TaskBatchBenchmark [adds]
+public class TaskBatchBenchmark {
+    private static final String[] APPS = { "i.TaskManagementSystem", "ii.ToDoListApp" };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int adds = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        Path empty = Files.createTempFile("task-commands", ".txt");
+        Path script = Files.createTempFile("task-commands", ".txt");
+        int commands = writeScript(script, adds);
+        System.out.printf("Script: %,d commands (%,d adds, then updates, removes and one listing), %,d KB%n",
+                commands, adds, Files.size(script) / 1024);
+        try {
+            for (String app : APPS) {
+                long startup = Math.min(run(app, empty, true), run(app, empty, true));
+                long interactive = run(app, script, false) - startup;
+                long batch = run(app, script, true) - startup;
+                System.out.printf("%-24s interactive %6d ms (%,9.0f commands/sec) | batch %5d ms (%,10.0f commands/sec) | %.1fx%n",
+                        app, interactive / 1_000_000, commands * 1e9 / interactive,
+                        batch / 1_000_000, commands * 1e9 / batch, (double) interactive / batch);
+            }
+        } finally {
+            Files.delete(script);
+            Files.delete(empty);
+        }
+    }
+
+    // Adds, then updates and removes of existing ids (ids are handed out from 1), then a listing
+    private static int writeScript(Path script, int adds) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        int edits = adds / 5;
+        try (BufferedWriter out = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= adds; i++) {
+                out.write("1\nImported task " + i + "\n");
+            }
+            for (int i = 0; i < edits; i++) {
+                out.write("2\n" + (1 + random.nextInt(adds)) + "\nReworded task " + i + "\n");
+            }
+            for (int i = 0; i < edits; i++) {
+                out.write("3\n" + (1 + 5 * i) + "\n");
+            }
+            out.write("4\n5\n");
+        }
+        return adds + 2 * edits + 2;
+    }
+
+    private static long run(String app, Path script, boolean batch) throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder builder = batch
+                ? new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), app, BatchMode.FLAG, script.toString())
+                : new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), app)
+                        .redirectInput(script.toFile());
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        long start = System.nanoTime();
+        int exit = builder.start().waitFor();
+        long nanos = System.nanoTime() - start;
+        if (exit != 0) {
+            throw new IllegalStateException(app + " exited with " + exit);
+        }
+        return nanos;
+    }
+}
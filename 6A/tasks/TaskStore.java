@@ -0,0 +1,278 @@
+package tasks;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Task store with stable ids. Tasks live in slot arrays that are reused through a free list;
+// an open-addressing table maps id -> slot (linear probing, backward-shift delete) and int
+// prev/next links keep the display order, so add, update and remove are all O(1) and removing
+// a task never renumbers the others.
+public class TaskStore<T> implements Iterable<T> {
+    private static final int NONE = -1;
+
+    // Reused view handed out by entries(); read it before advancing the iterator
+    public static final class Entry<T> {
+        private long id;
+        private T value;
+
+        public long id() {
+            return id;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+
+    private long[] ids;
+    private Object[] values;
+    private int[] prev;
+    private int[] next; // also chains the free slots
+    private long[] keys; // id, 0 = empty
+    private int[] keySlots;
+    private int head = NONE;
+    private int tail = NONE;
+    private int free = NONE;
+    private int allocated;
+    private int size;
+    private long nextId = 1;
+
+    public TaskStore() {
+        this(16);
+    }
+
+    // Sized so that expectedSize tasks fit without growing
+    public TaskStore(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        ids = new long[capacity];
+        values = new Object[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        keys = new long[tableSize];
+        keySlots = new int[tableSize];
+    }
+
+    // Append a task and return its id (ids start at 1 and are never reused)
+    public long add(T value) {
+        return insert(tail, value);
+    }
+
+    // Insert a task right after another one (0 = at the front) and return its id
+    public long insertAfter(long afterId, T value) {
+        if (afterId == 0) {
+            return insert(NONE, value);
+        }
+        int after = slotOf(afterId);
+        if (after == NONE) {
+            throw new NoSuchElementException("No task with id " + afterId);
+        }
+        return insert(after, value);
+    }
+
+    // The task with this id, or null if there is none
+    @SuppressWarnings("unchecked")
+    public T get(long id) {
+        int slot = slotOf(id);
+        return slot == NONE ? null : (T) values[slot];
+    }
+
+    public boolean contains(long id) {
+        return slotOf(id) != NONE;
+    }
+
+    // Replace a task; returns false if there is no task with this id
+    public boolean update(long id, T value) {
+        int slot = slotOf(id);
+        if (slot == NONE) {
+            return false;
+        }
+        values[slot] = value;
+        return true;
+    }
+
+    // Remove a task and return it, or null if there is no task with this id
+    @SuppressWarnings("unchecked")
+    public T remove(long id) {
+        if (id <= 0) {
+            return null; // 0 marks an empty table cell, so it must never be probed for
+        }
+        int mask = keys.length - 1;
+        int hole = home(id, mask);
+        while (keys[hole] != id) {
+            if (keys[hole] == 0) {
+                return null;
+            }
+            hole = (hole + 1) & mask;
+        }
+        int slot = keySlots[hole];
+        keys[hole] = 0;
+        for (int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int k = home(keys[j], mask);
+            // Move the entry back if the hole lies between its home slot and where it sits now
+            if (((j - k) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                keySlots[hole] = keySlots[j];
+                keys[j] = 0;
+                hole = j;
+            }
+        }
+
+        if (prev[slot] == NONE) {
+            head = next[slot];
+        } else {
+            next[prev[slot]] = next[slot];
+        }
+        if (next[slot] == NONE) {
+            tail = prev[slot];
+        } else {
+            prev[next[slot]] = prev[slot];
+        }
+        T value = (T) values[slot];
+        values[slot] = null;
+        next[slot] = free;
+        free = slot;
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Tasks in display order
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int slot = head;
+
+            @Override
+            public boolean hasNext() {
+                return slot != NONE;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (slot == NONE) {
+                    throw new NoSuchElementException();
+                }
+                T value = (T) values[slot];
+                slot = next[slot];
+                return value;
+            }
+        };
+    }
+
+    // Ids and tasks in display order, through one reused Entry
+    public Iterator<Entry<T>> entries() {
+        return new Iterator<Entry<T>>() {
+            private final Entry<T> entry = new Entry<>();
+            private int slot = head;
+
+            @Override
+            public boolean hasNext() {
+                return slot != NONE;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Entry<T> next() {
+                if (slot == NONE) {
+                    throw new NoSuchElementException();
+                }
+                entry.id = ids[slot];
+                entry.value = (T) values[slot];
+                slot = next[slot];
+                return entry;
+            }
+        };
+    }
+
+    private long insert(int after, T value) {
+        int slot = allocate();
+        long id = nextId++;
+        ids[slot] = id;
+        values[slot] = value;
+        prev[slot] = after;
+        next[slot] = after == NONE ? head : next[after];
+        if (next[slot] == NONE) {
+            tail = slot;
+        } else {
+            prev[next[slot]] = slot;
+        }
+        if (after == NONE) {
+            head = slot;
+        } else {
+            next[after] = slot;
+        }
+
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = home(id, mask);
+        while (keys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        keySlots[i] = slot;
+        return id;
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int slot = free;
+            free = next[slot];
+            return slot;
+        }
+        if (allocated == ids.length) {
+            int capacity = allocated * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            values = Arrays.copyOf(values, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    private int slotOf(long id) {
+        if (id <= 0) {
+            return NONE;
+        }
+        int mask = keys.length - 1;
+        for (int i = home(id, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return keySlots[i];
+            }
+        }
+        return NONE;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSlots = keySlots;
+        keys = new long[capacity];
+        keySlots = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = home(oldKeys[j], mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                keySlots[i] = oldSlots[j];
+            }
+        }
+    }
+
+    private static int home(long id, int mask) {
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & mask;
+    }
+}
@@ -0,0 +1,98 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+// Compares TaskStore with the index-addressed ArrayList the task apps used before: both are
+// filled with the same tasks, then run the same random mix of updates, removes and adds,
+// then walked once in display order. Both start sized for the initial tasks.
+// Usage: java tasks.TaskStoreBenchmark [tasks] [operations]
+public class TaskStoreBenchmark {
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        for (int round = 0; round < 2; round++) {
+            System.out.println(round == 0 ? "warm-up:" : "measured:");
+            runStore(taskCount, operations);
+            runList(taskCount, operations);
+        }
+    }
+
+    private static void runStore(int taskCount, int operations) {
+        TaskStore<String> store = new TaskStore<>(taskCount);
+        // Live ids kept aside only so the benchmark can pick a random existing task
+        long[] live = new long[taskCount + operations];
+        int liveCount = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            live[liveCount++] = store.add("Task " + i);
+        }
+        long filled = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < operations; i++) {
+            int op = random.nextInt(4);
+            int pick = random.nextInt(liveCount);
+            if (op < 2) {
+                store.update(live[pick], "Updated " + i);
+            } else if (op == 2) {
+                store.remove(live[pick]);
+                live[pick] = live[--liveCount];
+            } else {
+                live[liveCount++] = store.add("Added " + i);
+            }
+        }
+        long mixed = System.nanoTime();
+        long chars = 0;
+        for (String task : store) {
+            chars += task.length();
+        }
+        long walked = System.nanoTime();
+        // Ids that were never handed out must not touch the store (0 also marks an empty table cell)
+        int size = store.size();
+        String first = store.iterator().next();
+        if (store.remove(0) != null || store.remove(-1) != null || store.size() != size
+                || store.iterator().next() != first || store.get(live[0]) == null) {
+            throw new IllegalStateException("Removing an invalid id changed the store");
+        }
+        if (new TaskStore<String>().remove(0) != null) {
+            throw new IllegalStateException("Removing id 0 from an empty store returned a task");
+        }
+        report("TaskStore", taskCount, operations, start, filled, mixed, walked, store.size(), chars);
+    }
+
+    private static void runList(int taskCount, int operations) {
+        ArrayList<String> list = new ArrayList<>(taskCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            list.add("Task " + i);
+        }
+        long filled = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < operations; i++) {
+            int op = random.nextInt(4);
+            int pick = random.nextInt(list.size());
+            if (op < 2) {
+                list.set(pick, "Updated " + i);
+            } else if (op == 2) {
+                list.remove(pick);
+            } else {
+                list.add("Added " + i);
+            }
+        }
+        long mixed = System.nanoTime();
+        long chars = 0;
+        for (String task : list) {
+            chars += task.length();
+        }
+        long walked = System.nanoTime();
+        report("ArrayList", taskCount, operations, start, filled, mixed, walked, list.size(), chars);
+    }
+
+    private static void report(String label, int taskCount, int operations, long start, long filled, long mixed,
+            long walked, int size, long chars) {
+        System.out.printf("  %-10s fill %,d: %5d ms | %,d mixed ops: %6d ms (%,.0f ops/sec) | walk %,d: %3d ms%s%n",
+                label, taskCount, (filled - start) / 1_000_000, operations, (mixed - filled) / 1_000_000,
+                operations * 1e9 / (mixed - filled), size, (walked - mixed) / 1_000_000, chars < 0 ? "!" : "");
+    }
+}
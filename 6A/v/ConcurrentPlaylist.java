@@ -0,0 +1,211 @@
+package v;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import paging.PagedWriter;
+
+// Shared playlist for many concurrent editors and listeners.
+// The whole playlist is one immutable Snapshot (two persistent treaps); readers take a
+// snapshot with a single volatile read and iterate it without locks, while writers build
+// a new State and publish it with compareAndSet, retrying if another writer got there first.
+public class ConcurrentPlaylist implements Playlist {
+    private static final long GAP = 1L << 20;
+    // Returned by an update when a gap is exhausted; commit() relabels and publishes first
+    private static final Snapshot NEEDS_RELABEL = new Snapshot(null, null);
+
+    // Songs with the same title are ordered by position, so the first match is the front-most one
+    private static final class TitleKey {
+        final String title;
+        final long orderKey;
+
+        TitleKey(String title, long orderKey) {
+            this.title = title;
+            this.orderKey = orderKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TitleKey && ((TitleKey) o).orderKey == orderKey
+                    && ((TitleKey) o).title.equals(title);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(title, orderKey);
+        }
+    }
+
+    private static final Comparator<TitleKey> TITLE_ORDER =
+            Comparator.comparing((TitleKey k) -> k.title).thenComparingLong(k -> k.orderKey);
+
+    // An immutable version of the playlist
+    public static final class Snapshot implements Iterable<Song> {
+        private final PersistentTreap<Long, Song> songs;      // position order
+        private final PersistentTreap<TitleKey, Song> titles; // title index
+
+        private Snapshot(PersistentTreap<Long, Song> songs, PersistentTreap<TitleKey, Song> titles) {
+            this.songs = songs;
+            this.titles = titles;
+        }
+
+        public int size() {
+            return songs.size();
+        }
+
+        public Song getSong(int index) {
+            return songs.valueAt(index);
+        }
+
+        @Override
+        public Iterator<Song> iterator() {
+            return songs.iterator();
+        }
+
+        private TitleKey first(String title) {
+            TitleKey key = titles.ceilingKey(new TitleKey(title, Long.MIN_VALUE));
+            return key != null && key.title.equals(title) ? key : null;
+        }
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(
+            new Snapshot(new PersistentTreap<>(Comparator.naturalOrder()), new PersistentTreap<>(TITLE_ORDER)));
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder relabels = new LongAdder();
+
+    // Consistent, lock-free view for readers
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    @Override
+    public void addSong(Song song) {
+        commit(s -> {
+            Long last = s.songs.lastKey();
+            long key = last == null ? 0 : last + GAP;
+            return last != null && key < last ? NEEDS_RELABEL : insert(s, key, song);
+        });
+    }
+
+    @Override
+    public void removeSong(String songTitle) {
+        commit(s -> {
+            TitleKey key = s.first(songTitle);
+            return key == null ? s : new Snapshot(s.songs.remove(key.orderKey), s.titles.remove(key));
+        });
+    }
+
+    @Override
+    public void moveSong(String songTitle, int newPosition) {
+        commit(s -> {
+            TitleKey key = s.first(songTitle);
+            if (key == null) {
+                return s;
+            }
+            if (newPosition < 0 || newPosition > s.size() - 1) {
+                throw new IndexOutOfBoundsException("Position: " + newPosition + ", Size: " + s.size());
+            }
+            Song song = s.titles.get(key);
+            Snapshot removed = new Snapshot(s.songs.remove(key.orderKey), s.titles.remove(key));
+            Long orderKey = keyForPosition(removed, newPosition);
+            return orderKey == null ? NEEDS_RELABEL : insert(removed, orderKey, song);
+        });
+    }
+
+    @Override
+    public Song getSong(int index) {
+        return snapshot().getSong(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot().size();
+    }
+
+    // Iterates a snapshot taken when the iterator is created
+    @Override
+    public Iterator<Song> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public void displayPlaylist() {
+        PagedWriter.print(iterator(), (index, song, line) -> line.append(index + 1).append(". ").append(song));
+    }
+
+    public long getCommitCount() {
+        return commits.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getRelabelCount() {
+        return relabels.sum();
+    }
+
+    // Apply an update to the latest snapshot and publish it with CAS, retrying on contention.
+    // The O(n log n) relabel is published as a commit of its own, so retries of the update
+    // itself stay O(log n); a relabel is only redone if it loses a race and room is still short.
+    private void commit(UnaryOperator<Snapshot> update) {
+        while (true) {
+            Snapshot before = current.get();
+            Snapshot after = update.apply(before);
+            if (after == before) {
+                return;
+            }
+            if (after == NEEDS_RELABEL) {
+                if (current.compareAndSet(before, relabel(before))) {
+                    relabels.increment();
+                } else {
+                    retries.increment();
+                }
+                continue;
+            }
+            if (current.compareAndSet(before, after)) {
+                commits.increment();
+                return;
+            }
+            retries.increment();
+        }
+    }
+
+    private static Snapshot insert(Snapshot s, long orderKey, Song song) {
+        return new Snapshot(s.songs.put(orderKey, song), s.titles.put(new TitleKey(song.getTitle(), orderKey), song));
+    }
+
+    // An order key that sorts between positions index-1 and index, or null if there is no room
+    private static Long keyForPosition(Snapshot s, int index) {
+        int size = s.size();
+        if (size == 0) {
+            return 0L;
+        }
+        if (index == size) {
+            long last = s.songs.keyAt(size - 1);
+            return last + GAP > last ? last + GAP : null;
+        }
+        long next = s.songs.keyAt(index);
+        long prev = index == 0 ? next - 2 * GAP : s.songs.keyAt(index - 1);
+        if (index == 0 && prev > next) {
+            return null;
+        }
+        return next - prev >= 2 ? prev + (next - prev) / 2 : null;
+    }
+
+    // Rebuild with evenly spaced order keys (rare: only when a gap is exhausted)
+    private static Snapshot relabel(Snapshot s) {
+        Snapshot fresh = new Snapshot(new PersistentTreap<>(Comparator.naturalOrder()), new PersistentTreap<>(TITLE_ORDER));
+        long key = 0;
+        for (Song song : s.songs) {
+            fresh = insert(fresh, key, song);
+            key += GAP;
+        }
+        return fresh;
+    }
+}
@@ -0,0 +1,73 @@
+package v;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Many listeners iterate snapshots while a few editors add, move and remove songs.
+// Reports reads/sec, commits/sec, CAS retries and the listener-to-writer throughput ratio.
+// Usage: java v.ConcurrentPlaylistBenchmark [songs] [listeners] [writers] [seconds]
+public class ConcurrentPlaylistBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int songs = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int listeners = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int writers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        ConcurrentPlaylist playlist = new ConcurrentPlaylist();
+        for (int i = 0; i < songs; i++) {
+            playlist.addSong(new Song("Song " + i, "Artist " + (i % 100)));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder songsRead = new LongAdder();
+        LongAdder inconsistent = new LongAdder();
+        Thread[] threads = new Thread[listeners + writers];
+
+        // Listeners: read the first 100 entries of a snapshot; each snapshot must be internally consistent
+        for (int t = 0; t < listeners; t++) {
+            threads[t] = new Thread(() -> {
+                while (running.get()) {
+                    ConcurrentPlaylist.Snapshot snapshot = playlist.snapshot();
+                    int expected = Math.min(100, snapshot.size());
+                    int seen = 0;
+                    for (Song song : snapshot) {
+                        if (++seen == expected) break;
+                    }
+                    if (seen != expected) {
+                        inconsistent.increment();
+                    }
+                    songsRead.add(seen);
+                    reads.increment();
+                }
+            });
+        }
+        // Writers: move a random song, then remove and re-add another, keeping the size stable
+        for (int t = 0; t < writers; t++) {
+            int seed = t;
+            threads[listeners + t] = new Thread(() -> {
+                Random random = new Random(seed);
+                while (running.get()) {
+                    playlist.moveSong("Song " + random.nextInt(songs), random.nextInt(songs - 1));
+                    String title = "Song " + random.nextInt(songs);
+                    playlist.removeSong(title);
+                    playlist.addSong(new Song(title, "Artist"));
+                }
+            });
+        }
+
+        for (Thread thread : threads) thread.start();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread : threads) thread.join();
+
+        double readRate = reads.sum() / (double) seconds;
+        double commitRate = playlist.getCommitCount() / (double) seconds;
+        System.out.printf("%d listeners, %d writers, %,d songs%n", listeners, writers, songs);
+        System.out.printf("Snapshot reads: %,.0f/sec (%,.0f songs/sec)%n", readRate, songsRead.sum() / (double) seconds);
+        System.out.printf("Commits: %,.0f/sec, CAS retries: %,d%n", commitRate, playlist.getRetryCount());
+        System.out.printf("Listener-to-writer throughput ratio: %.1f%n", readRate / commitRate);
+        System.out.println(inconsistent.sum() == 0 ? "All snapshots consistent" : inconsistent.sum() + " inconsistent snapshots");
+    }
+}
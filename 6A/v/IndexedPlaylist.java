@@ -0,0 +1,240 @@
+package v;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import paging.PagedWriter;
+
+// Playlist backed by an implicit treap (order-statistic tree keyed by position) plus a
+// title -> nodes hash index. Add, remove by title, move to position and get by index
+// are all O(log n) expected; with k songs sharing a title they cost O(log k * log n).
+public class IndexedPlaylist implements Playlist {
+    private static class Node {
+        final Song song;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+        Node parent;
+
+        Node(Song song, int priority) {
+            this.song = song;
+            this.priority = priority;
+        }
+    }
+
+    // Songs sharing a title, ordered by their current position (a node's rank)
+    private static final Comparator<Node> BY_POSITION = Comparator.comparingInt(IndexedPlaylist::rank);
+
+    // title -> its song's Node, or a TreeSet<Node> once a second song with that title arrives;
+    // nearly all titles are unique, so most songs cost one map entry and no set
+    private final HashMap<String, Object> byTitle = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    @Override
+    public void addSong(Song song) {
+        Node node = new Node(song, random.nextInt());
+        root = merge(root, node);
+        Object entry = byTitle.putIfAbsent(song.getTitle(), node);
+        if (entry instanceof Node) {
+            TreeSet<Node> nodes = new TreeSet<>(BY_POSITION);
+            nodes.add((Node) entry);
+            nodes.add(node);
+            byTitle.put(song.getTitle(), nodes);
+        } else if (entry != null) {
+            sameTitle(entry).add(node);
+        }
+    }
+
+    @Override
+    public void removeSong(String songTitle) {
+        Object entry = byTitle.get(songTitle);
+        if (entry == null) {
+            return;
+        }
+        Node node;
+        if (entry instanceof Node) {
+            node = (Node) entry;
+            byTitle.remove(songTitle);
+        } else {
+            TreeSet<Node> nodes = sameTitle(entry);
+            node = nodes.pollFirst();
+            if (nodes.size() == 1) {
+                byTitle.put(songTitle, nodes.first());
+            }
+        }
+        detach(node);
+    }
+
+    @Override
+    public void moveSong(String songTitle, int newPosition) {
+        Object entry = byTitle.get(songTitle);
+        if (entry == null) {
+            return;
+        }
+        if (newPosition < 0 || newPosition > size(root) - 1) {
+            throw new IndexOutOfBoundsException("Position: " + newPosition + ", Size: " + size(root));
+        }
+        // Ranks change while the node is out of the tree, so take it out of the ordered set first
+        TreeSet<Node> nodes = entry instanceof Node ? null : sameTitle(entry);
+        Node node = nodes == null ? (Node) entry : nodes.pollFirst();
+        detach(node);
+        node.left = null;
+        node.right = null;
+        node.size = 1;
+        Node[] parts = split(root, newPosition);
+        root = merge(merge(parts[0], node), parts[1]);
+        root.parent = null;
+        if (nodes != null) {
+            nodes.add(node);
+        }
+    }
+
+    @Override
+    public Song getSong(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.song;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    // In-order walk using parent pointers, so long playlists cannot overflow the stack
+    @Override
+    public Iterator<Song> iterator() {
+        return new Iterator<Song>() {
+            private Node next = leftmost(root);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Song next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Node node = next;
+                if (node.right != null) {
+                    next = leftmost(node.right);
+                } else {
+                    Node child = node;
+                    next = node.parent;
+                    while (next != null && child == next.right) {
+                        child = next;
+                        next = next.parent;
+                    }
+                }
+                return node.song;
+            }
+        };
+    }
+
+    @Override
+    public void displayPlaylist() {
+        PagedWriter.print(iterator(), (index, song, line) -> line.append(index + 1).append(". ").append(song));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TreeSet<Node> sameTitle(Object entry) {
+        return (TreeSet<Node>) entry;
+    }
+
+    // Position of a node, found by walking up to the root
+    private static int rank(Node node) {
+        int rank = size(node.left);
+        while (node.parent != null) {
+            if (node == node.parent.right) {
+                rank += size(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    private void detach(Node node) {
+        int index = rank(node);
+        Node[] before = split(root, index);
+        Node[] after = split(before[1], 1);
+        root = merge(before[0], after[1]);
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    private static Node leftmost(Node node) {
+        if (node != null) {
+            while (node.left != null) {
+                node = node.left;
+            }
+        }
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        if (node.left != null) node.left.parent = node;
+        if (node.right != null) node.right.parent = node;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+    }
+
+    // Splits into the first `count` nodes and the rest; both roots get a null parent
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        Node[] parts;
+        if (size(node.left) >= count) {
+            parts = split(node.left, count);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+        } else {
+            parts = split(node.right, count - size(node.left) - 1);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+        }
+        if (parts[0] != null) parts[0].parent = null;
+        if (parts[1] != null) parts[1].parent = null;
+        return parts;
+    }
+}
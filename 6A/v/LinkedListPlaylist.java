@@ -1,7 +1,10 @@
 package v;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 
+import paging.PagedWriter;
+
 public class LinkedListPlaylist implements Playlist {
     private LinkedList<Song> playlist;
 
@@ -39,10 +42,23 @@ public class LinkedListPlaylist implements Playlist {
         }
     }
 
+    @Override
+    public Song getSong(int index) {
+        return playlist.get(index);
+    }
+
+    @Override
+    public int size() {
+        return playlist.size();
+    }
+
+    @Override
+    public Iterator<Song> iterator() {
+        return playlist.iterator();
+    }
+
     @Override
     public void displayPlaylist() {
-        for (int i = 0; i < playlist.size(); i++) {
-            System.out.println((i + 1) + ". " + playlist.get(i));
-        }
+        PagedWriter.print(iterator(), (index, song, line) -> line.append(index + 1).append(". ").append(song));
     }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package v;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Immutable, structurally shared ordered map. Every update copies only the O(log n) nodes
+// on its path and returns a new treap; existing treaps never change, so any number of
+// threads can read them without locks. Priorities are derived from the key, which keeps
+// the shape deterministic for a given set of keys.
+final class PersistentTreap<K, V> implements Iterable<V> {
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int priority;
+        final int size;
+        final Node<K, V> left;
+        final Node<K, V> right;
+
+        Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+
+        Node<K, V> with(Node<K, V> newLeft, Node<K, V> newRight) {
+            return new Node<>(key, value, priority, newLeft, newRight);
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+
+    PersistentTreap(Comparator<? super K> comparator) {
+        this(comparator, null);
+    }
+
+    private PersistentTreap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    // Adds a key that is not present yet
+    PersistentTreap<K, V> put(K key, V value) {
+        Node<K, V>[] parts = split(root, key, false);
+        Node<K, V> node = new Node<>(key, value, priority(key), null, null);
+        return new PersistentTreap<>(comparator, merge(merge(parts[0], node), parts[1]));
+    }
+
+    PersistentTreap<K, V> remove(K key) {
+        Node<K, V>[] lower = split(root, key, false);
+        Node<K, V>[] upper = split(lower[1], key, true);
+        if (upper[0] == null) {
+            return this;
+        }
+        return new PersistentTreap<>(comparator, merge(lower[0], upper[1]));
+    }
+
+    // Smallest key >= the given key, or null
+    K ceilingKey(K key) {
+        K best = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            if (comparator.compare(node.key, key) >= 0) {
+                best = node.key;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int c = comparator.compare(key, node.key);
+            if (c == 0) {
+                return node.value;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    K keyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    V valueAt(int index) {
+        return nodeAt(index).value;
+    }
+
+    K lastKey() {
+        Node<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    // In-order iteration over the values of this (immutable) version
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<K, V> node) {
+                for (; node != null; node = node.left) {
+                    stack.push(node);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> node = stack.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    private Node<K, V> nodeAt(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Splits into keys below `key` (or <= key when inclusive) and the rest, copying the path
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<K, V>[] split(Node<K, V> node, K key, boolean inclusive) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        int c = comparator.compare(node.key, key);
+        if (c < 0 || (inclusive && c == 0)) {
+            Node<K, V>[] parts = split(node.right, key, inclusive);
+            parts[0] = node.with(node.left, parts[0]);
+            return parts;
+        } else {
+            Node<K, V>[] parts = split(node.left, key, inclusive);
+            parts[1] = node.with(parts[1], node.right);
+            return parts;
+        }
+    }
+
+    private static <K, V> Node<K, V> merge(Node<K, V> a, Node<K, V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            return a.with(a.left, merge(a.right, b));
+        } else {
+            return b.with(merge(a, b.left), b.right);
+        }
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int priority(Object key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 29));
+    }
+}
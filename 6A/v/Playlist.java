@@ -1,8 +1,10 @@
 package v;
 
-public interface Playlist {
+public interface Playlist extends Iterable<Song> {
     void addSong(Song song);
     void removeSong(String songTitle);
     void moveSong(String songTitle, int newPosition);
     void displayPlaylist();
+    Song getSong(int index);
+    int size();
 }
\ No newline at end of file
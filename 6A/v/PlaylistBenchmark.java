@@ -0,0 +1,53 @@
+package v;
+
+import java.util.Random;
+
+// Compares IndexedPlaylist with LinkedListPlaylist on add, remove by title,
+// move to position and get by index.
+// Usage: java v.PlaylistBenchmark [maxSongs] [opsPerType]
+public class PlaylistBenchmark {
+    public static void main(String[] args) {
+        int maxSongs = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        System.out.println("songs      implementation       add ns/op   remove ns/op   move ns/op    get ns/op");
+        for (int n = 10_000; n <= maxSongs; n *= 10) {
+            run("LinkedListPlaylist", new LinkedListPlaylist(), n, ops);
+            run("IndexedPlaylist", new IndexedPlaylist(), n, ops);
+        }
+    }
+
+    private static void run(String name, Playlist playlist, int n, int ops) {
+        Random random = new Random(n);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            playlist.addSong(new Song("Song " + i, "Artist " + (i % 1000)));
+        }
+        double add = (System.nanoTime() - start) / (double) n;
+
+        // Remove a song and add it back at the end, so the size stays constant
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            String title = "Song " + random.nextInt(n);
+            playlist.removeSong(title);
+            playlist.addSong(new Song(title, "Artist"));
+        }
+        double remove = (System.nanoTime() - start) / (double) ops;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            playlist.moveSong("Song " + random.nextInt(n), random.nextInt(n));
+        }
+        double move = (System.nanoTime() - start) / (double) ops;
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            checksum += playlist.getSong(random.nextInt(n)).getTitle().length();
+        }
+        double get = (System.nanoTime() - start) / (double) ops;
+
+        System.out.printf("%-10d %-18s %11.0f %14.0f %12.0f %12.0f%s%n",
+                n, name, add, remove, move, get, checksum == 0 ? " (empty)" : "");
+    }
+}
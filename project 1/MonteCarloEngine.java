@@ -0,0 +1,146 @@
+// MonteCarloEngine.java
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Monte Carlo simulation of portfolio returns.
+// Paths are split across a fork/join pool; each leaf task gets its own SplittableRandom
+// (split from its parent) and writes terminal returns into one shared double[] buffer.
+class MonteCarloEngine {
+    private static final int LEAF_PATHS = 8_192;
+
+    private final ForkJoinPool pool;
+
+    MonteCarloEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    MonteCarloEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    static final class Result {
+        final int paths;
+        final double expectedReturn;
+        final double valueAtRisk95; // loss (as a fraction) not exceeded in 95% of paths
+        final double valueAtRisk99;
+
+        Result(int paths, double expectedReturn, double valueAtRisk95, double valueAtRisk99) {
+            this.paths = paths;
+            this.expectedReturn = expectedReturn;
+            this.valueAtRisk95 = valueAtRisk95;
+            this.valueAtRisk99 = valueAtRisk99;
+        }
+    }
+
+    // Simulate `paths` paths of `steps` steps over `years` years with the given weights
+    Result simulate(AssetUniverse universe, double[] weights, int paths, int steps, double years, long seed) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("paths must be positive: " + paths);
+        }
+        double[] returns = new double[paths];
+        simulateInto(universe, weights, returns, steps, years, seed);
+
+        double sum = 0;
+        for (double r : returns) {
+            sum += r;
+        }
+        Arrays.parallelSort(returns);
+        return new Result(paths, sum / paths,
+                -returns[(int) (paths * 0.05)], -returns[(int) (paths * 0.01)]);
+    }
+
+    // Fill `returns` with one terminal return per path
+    void simulateInto(AssetUniverse universe, double[] weights, double[] returns, int steps, double years, long seed) {
+        int n = universe.size();
+        double dt = years / steps;
+        // Per-step drift and scale, precomputed once per asset
+        double[] drift = new double[n];
+        double[] scale = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sigma = universe.volatilities[i];
+            drift[i] = (universe.expectedReturns[i] - 0.5 * sigma * sigma) * dt;
+            scale[i] = sigma * Math.sqrt(dt);
+        }
+        pool.invoke(new PathTask(weights, drift, scale, returns, 0, returns.length, steps, new SplittableRandom(seed)));
+    }
+
+    private static final class PathTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] weights;
+        private final double[] drift;
+        private final double[] scale;
+        private final double[] returns;
+        private final int from;
+        private final int to;
+        private final int steps;
+        private final SplittableRandom random;
+
+        PathTask(double[] weights, double[] drift, double[] scale, double[] returns,
+                 int from, int to, int steps, SplittableRandom random) {
+            this.weights = weights;
+            this.drift = drift;
+            this.scale = scale;
+            this.returns = returns;
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_PATHS) {
+                simulateRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            PathTask left = new PathTask(weights, drift, scale, returns, from, mid, steps, random.split());
+            PathTask right = new PathTask(weights, drift, scale, returns, mid, to, steps, random);
+            invokeAll(left, right);
+        }
+
+        private void simulateRange() {
+            int n = weights.length;
+            double[] value = new double[n]; // per-asset value of one path, reused across paths
+            for (int p = from; p < to; p++) {
+                for (int i = 0; i < n; i++) {
+                    value[i] = weights[i];
+                }
+                for (int s = 0; s < steps; s++) {
+                    for (int i = 0; i < n; i++) {
+                        value[i] *= Math.exp(drift[i] + scale[i] * gaussian());
+                    }
+                }
+                double total = 0;
+                for (int i = 0; i < n; i++) {
+                    total += value[i];
+                }
+                returns[p] = total - 1.0;
+            }
+        }
+
+        // Marsaglia polar method on the task-local generator
+        private double spare;
+        private boolean hasSpare;
+
+        private double gaussian() {
+            if (hasSpare) {
+                hasSpare = false;
+                return spare;
+            }
+            double u, v, s;
+            do {
+                u = random.nextDouble() * 2 - 1;
+                v = random.nextDouble() * 2 - 1;
+                s = u * u + v * v;
+            } while (s >= 1 || s == 0);
+            double m = Math.sqrt(-2.0 * Math.log(s) / s);
+            spare = v * m;
+            hasSpare = true;
+            return u * m;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+// PositionBook.java
+// Portfolio positions stored as parallel primitive arrays (structure of arrays)
+class PositionBook {
+    final int[] assets;    // index into the AssetUniverse
+    final double[] units;
+    final double[] prices;
+    private int size;
+
+    PositionBook(int capacity) {
+        assets = new int[capacity];
+        units = new double[capacity];
+        prices = new double[capacity];
+    }
+
+    void add(int asset, double quantity, double price) {
+        assets[size] = asset;
+        units[size] = quantity;
+        prices[size] = price;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Per-position target weights: each asset's strategy weight shared equally by its positions
+    double[] targetWeights(InvestmentStrategy strategy, AssetUniverse universe) {
+        double[] assetWeights = strategy.allocate(universe);
+        int[] counts = new int[universe.size()];
+        for (int i = 0; i < size; i++) {
+            counts[assets[i]]++;
+        }
+        // Weight of assets with no positions is spread over the ones that have some
+        double held = 0;
+        for (int a = 0; a < counts.length; a++) {
+            if (counts[a] > 0) held += assetWeights[a];
+        }
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            int a = assets[i];
+            weights[i] = assetWeights[a] / held / counts[a];
+        }
+        return weights;
+    }
+}
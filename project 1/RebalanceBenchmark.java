@@ -0,0 +1,50 @@
+// RebalanceBenchmark.java
+import java.util.SplittableRandom;
+
+// Compares the scalar and lane-split rebalancing kernels for 1k to 1M positions.
+// Usage: java RebalanceBenchmark [iterations]
+public class RebalanceBenchmark {
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        AssetUniverse universe = AssetUniverse.sample();
+        InvestmentStrategy strategy = new BalancedStrategy();
+        Rebalancer scalar = new Rebalancer(Rebalancer.Kernel.SCALAR);
+        Rebalancer lanes = new Rebalancer(Rebalancer.Kernel.LANES);
+
+        System.out.println("positions   scalar ns/pos   lanes ns/pos   speedup");
+        for (int n = 1_000; n <= 1_000_000; n *= 10) {
+            PositionBook book = new PositionBook(n);
+            SplittableRandom random = new SplittableRandom(n);
+            for (int i = 0; i < n; i++) {
+                book.add(random.nextInt(universe.size()), 1 + random.nextInt(1_000), 1 + random.nextDouble() * 500);
+            }
+            double[] weights = book.targetWeights(strategy, universe);
+            double[] trades = new double[n];
+            int reps = (int) Math.max(5, (long) iterations * 1_000 / n * 10);
+
+            time(scalar, book, weights, trades, reps);
+            time(lanes, book, weights, trades, reps);
+            double scalarNanos = time(scalar, book, weights, trades, reps);
+            double lanesNanos = time(lanes, book, weights, trades, reps);
+            System.out.printf("%9d   %13.3f   %12.3f   %6.2fx%n",
+                    n, scalarNanos / n, lanesNanos / n, scalarNanos / lanesNanos);
+        }
+    }
+
+    // Average nanoseconds per rebalance after a warm-up of the same length
+    private static double time(Rebalancer rebalancer, PositionBook book, double[] weights, double[] trades, int reps) {
+        double sink = 0;
+        for (int r = 0; r < reps; r++) {
+            sink += rebalancer.rebalance(book, weights, trades).turnover;
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < reps; r++) {
+            sink += rebalancer.rebalance(book, weights, trades).turnover;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println(); // keeps the results live
+        }
+        return (double) elapsed / reps;
+    }
+}
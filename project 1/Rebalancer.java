@@ -0,0 +1,102 @@
+// Rebalancer.java
+// Computes the trades that bring a PositionBook back to its target weights.
+// Two kernels over the same primitive arrays:
+//  - SCALAR: straightforward loops, one accumulator
+//  - LANES: 4-wide unrolled loops with independent accumulators. The element-wise loops are
+//    auto-vectorized by the JIT either way; the split accumulators let the value/drift
+//    reductions use SIMD lanes too, which a single strict-order accumulator prevents.
+class Rebalancer {
+    enum Kernel { SCALAR, LANES }
+
+    static final class Result {
+        final double totalValue;
+        final double maxDrift;    // largest |current weight - target weight|
+        final double turnover;    // total traded value
+
+        Result(double totalValue, double maxDrift, double turnover) {
+            this.totalValue = totalValue;
+            this.maxDrift = maxDrift;
+            this.turnover = turnover;
+        }
+    }
+
+    private final Kernel kernel;
+
+    Rebalancer(Kernel kernel) {
+        this.kernel = kernel;
+    }
+
+    // Writes the units to buy (positive) or sell (negative) for each position into trades
+    Result rebalance(PositionBook book, double[] targetWeights, double[] trades) {
+        int n = book.size();
+        if (targetWeights.length < n || trades.length < n) {
+            throw new IllegalArgumentException("Weight and trade arrays must cover every position");
+        }
+        return kernel == Kernel.LANES
+                ? lanes(book.units, book.prices, targetWeights, trades, n)
+                : scalar(book.units, book.prices, targetWeights, trades, n);
+    }
+
+    private static Result scalar(double[] units, double[] prices, double[] target, double[] trades, int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += units[i] * prices[i];
+        }
+        double maxDrift = 0;
+        double turnover = 0;
+        for (int i = 0; i < n; i++) {
+            double value = units[i] * prices[i];
+            double delta = target[i] * total - value;
+            trades[i] = delta / prices[i];
+            maxDrift = Math.max(maxDrift, Math.abs(delta) / total);
+            turnover += Math.abs(delta);
+        }
+        return new Result(total, maxDrift, turnover);
+    }
+
+    private static Result lanes(double[] units, double[] prices, double[] target, double[] trades, int n) {
+        int upper = n & ~3;
+        double t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+        int i = 0;
+        for (; i < upper; i += 4) {
+            t0 += units[i] * prices[i];
+            t1 += units[i + 1] * prices[i + 1];
+            t2 += units[i + 2] * prices[i + 2];
+            t3 += units[i + 3] * prices[i + 3];
+        }
+        for (; i < n; i++) {
+            t0 += units[i] * prices[i];
+        }
+        double total = (t0 + t1) + (t2 + t3);
+
+        // Trades: independent per element
+        for (i = 0; i < n; i++) {
+            trades[i] = (target[i] * total - units[i] * prices[i]) / prices[i];
+        }
+
+        // Drift and turnover from the trades, again with split accumulators
+        double m0 = 0, m1 = 0, m2 = 0, m3 = 0;
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        for (i = 0; i < upper; i += 4) {
+            double d0 = Math.abs(trades[i] * prices[i]);
+            double d1 = Math.abs(trades[i + 1] * prices[i + 1]);
+            double d2 = Math.abs(trades[i + 2] * prices[i + 2]);
+            double d3 = Math.abs(trades[i + 3] * prices[i + 3]);
+            m0 = Math.max(m0, d0);
+            m1 = Math.max(m1, d1);
+            m2 = Math.max(m2, d2);
+            m3 = Math.max(m3, d3);
+            s0 += d0;
+            s1 += d1;
+            s2 += d2;
+            s3 += d3;
+        }
+        for (; i < n; i++) {
+            double d = Math.abs(trades[i] * prices[i]);
+            m0 = Math.max(m0, d);
+            s0 += d;
+        }
+        double maxDelta = Math.max(Math.max(m0, m1), Math.max(m2, m3));
+        return new Result(total, maxDelta / total, (s0 + s1) + (s2 + s3));
+    }
+}
@@ -0,0 +1,35 @@
+// SimulationBenchmark.java
+import java.util.concurrent.ForkJoinPool;
+
+// Monte Carlo paths/sec as the number of fork/join workers grows.
+// Usage: java SimulationBenchmark [paths] [steps]
+public class SimulationBenchmark {
+    public static void main(String[] args) {
+        int paths = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        AssetUniverse universe = AssetUniverse.sample();
+        double[] weights = new BalancedStrategy().allocate(universe);
+        double[] returns = new double[paths];
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%,d paths x %d steps x %d assets%n", paths, steps, universe.size());
+        System.out.println("workers     paths/sec   speedup");
+        double baseline = 0;
+        for (int workers = 1; ; workers = Math.min(workers * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            MonteCarloEngine engine = new MonteCarloEngine(pool);
+            engine.simulateInto(universe, weights, returns, steps, 1.0, 1); // warm-up
+            long start = System.nanoTime();
+            engine.simulateInto(universe, weights, returns, steps, 1.0, 2);
+            double pathsPerSecond = paths * 1e9 / (System.nanoTime() - start);
+            pool.shutdown();
+            if (workers == 1) {
+                baseline = pathsPerSecond;
+            }
+            System.out.printf("%7d   %,11.0f   %6.2fx%n", workers, pathsPerSecond, pathsPerSecond / baseline);
+            if (workers == cores) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// StrategyRegistry.java
+import java.util.concurrent.ConcurrentHashMap;
+
+// Named strategy instances shared by many portfolios
+class StrategyRegistry {
+    private final ConcurrentHashMap<String, InvestmentStrategy> strategies = new ConcurrentHashMap<>();
+
+    // Registry preloaded with the three built-in strategies
+    static StrategyRegistry withDefaults() {
+        StrategyRegistry registry = new StrategyRegistry();
+        registry.register("conservative", new ConservativeStrategy());
+        registry.register("balanced", new BalancedStrategy());
+        registry.register("aggressive", new AggressiveStrategy());
+        return registry;
+    }
+
+    void register(String name, InvestmentStrategy strategy) {
+        strategies.put(name, strategy);
+    }
+
+    InvestmentStrategy get(String name) {
+        InvestmentStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+        return strategy;
+    }
+}
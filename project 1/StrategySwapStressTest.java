@@ -0,0 +1,129 @@
+// StrategySwapStressTest.java
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Swaps strategies about 10k times/sec while 32 threads invest through shared portfolios.
+// Every swap installs a freshly built strategy whose fields are deliberately not final, so it is
+// only seen fully initialised if the portfolio publishes it safely. Each invest call must
+// (1) run on an intact strategy and (2) report the version that strategy was installed under;
+// a portfolio that read the strategy and its version separately would pair them up wrongly.
+// Usage: java StrategySwapStressTest [seconds] [threads] [swapsPerSecond]
+public class StrategySwapStressTest {
+    private static final ThreadLocal<ProbeStrategy> LAST_RUN = new ThreadLocal<>();
+
+    // Records which instance ran; its fields are checked against each other afterwards
+    static final class ProbeStrategy implements InvestmentStrategy {
+        long version;
+        double bonds;
+        double equities;
+        long checksum;
+
+        ProbeStrategy(long version, double bonds) {
+            this.version = version;
+            this.bonds = bonds;
+            this.equities = 1 - bonds;
+            this.checksum = version * 31 + Double.doubleToLongBits(bonds);
+        }
+
+        boolean intact() {
+            return checksum == version * 31 + Double.doubleToLongBits(bonds) && bonds + equities == 1;
+        }
+
+        @Override
+        public void invest(double amount) {
+            LAST_RUN.set(this);
+        }
+
+        @Override
+        public double[] allocate(AssetUniverse universe) {
+            return universe.weightsByRiskClass(bonds, 0, equities);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int swapsPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        Portfolio[] portfolios = new Portfolio[4];
+        long[] versions = new long[portfolios.length];
+        for (int i = 0; i < portfolios.length; i++) {
+            portfolios[i] = new Portfolio();
+            versions[i] = portfolios[i].setInvestmentStrategy(new ProbeStrategy(1, 0.5));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder investments = new LongAdder();
+        LongAdder torn = new LongAdder();
+        LongAdder mismatched = new LongAdder();
+        long[] swaps = new long[1];
+
+        // The only writer, so it knows the version each swap will get
+        Thread swapper = new Thread(() -> {
+            long interval = TimeUnit.SECONDS.toNanos(1) / swapsPerSecond;
+            long next = System.nanoTime();
+            int i = 0;
+            while (running.get()) {
+                int p = i % portfolios.length;
+                long version = versions[p] + 1;
+                versions[p] = portfolios[p].setInvestmentStrategy(new ProbeStrategy(version, (i % 100) / 100.0));
+                if (versions[p] != version) {
+                    mismatched.increment();
+                }
+                i++;
+                next += interval;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            swaps[0] = i;
+        });
+
+        Thread[] investors = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Portfolio portfolio = portfolios[t % portfolios.length];
+            investors[t] = new Thread(() -> {
+                while (running.get()) {
+                    long version = portfolio.invest(1.0);
+                    ProbeStrategy ran = LAST_RUN.get();
+                    if (!ran.intact()) {
+                        torn.increment();
+                    } else if (ran.version != version) {
+                        mismatched.increment();
+                    }
+                    investments.increment();
+                }
+            });
+        }
+
+        swapper.start();
+        for (Thread investor : investors) investor.start();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        swapper.join();
+        for (Thread investor : investors) investor.join();
+
+        boolean rejectsNull = false;
+        try {
+            portfolios[0].setInvestmentStrategy(null);
+        } catch (IllegalArgumentException e) {
+            rejectsNull = true;
+        }
+
+        long maxVersion = 0;
+        for (Portfolio portfolio : portfolios) {
+            maxVersion = Math.max(maxVersion, portfolio.getInvestmentStrategy().version);
+        }
+        System.out.printf("%,d swaps (%,.0f/sec), %,d investments on %d threads, highest version %d%n",
+                swaps[0], swaps[0] / (double) seconds, investments.sum(), threads, maxVersion);
+        if (torn.sum() == 0 && mismatched.sum() == 0 && rejectsNull) {
+            System.out.println("PASSED");
+        } else {
+            System.out.printf("FAILED: %d partially initialised strategies, %d strategy/version mismatches%s%n",
+                    torn.sum(), mismatched.sum(), rejectsNull ? "" : ", null strategy accepted");
+        }
+    }
+}
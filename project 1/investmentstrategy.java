@@ -1,66 +1,151 @@
-// Step 1: Define the Strategy Interface
-interface InvestmentStrategy {
-    void invest(double amount);
-}
-
-// Step 2: Implement Different Investment Strategies
-
-// Conservative Strategy
-class ConservativeStrategy implements InvestmentStrategy {
-    @Override
-    public void invest(double amount) {
-        System.out.println("Investing " + amount + " in conservative instruments like bonds and fixed deposits.");
-    }
-}
-
-// Balanced Strategy
-class BalancedStrategy implements InvestmentStrategy {
-    @Override
-    public void invest(double amount) {
-        System.out.println("Investing " + amount + " in a balanced mix of stocks and bonds.");
-    }
-}
-
-// Aggressive Strategy
-class AggressiveStrategy implements InvestmentStrategy {
-    @Override
-    public void invest(double amount) {
-        System.out.println("Investing " + amount + " in aggressive instruments like stocks and high-risk assets.");
-    }
-}
-
-// Step 3: Create a Context Class
-class Portfolio {
-    private InvestmentStrategy investmentStrategy;
-
-    // Set the strategy dynamically
-    public void setInvestmentStrategy(InvestmentStrategy investmentStrategy) {
-        this.investmentStrategy = investmentStrategy;
-    }
-
-    public void invest(double amount) {
-        if (investmentStrategy == null) {
-            throw new IllegalStateException("Investment strategy not set");
-        }
-        investmentStrategy.invest(amount);
-    }
-}
-
-// Step 4: Use the Strategy Pattern in the Main Class
-public class Main {
-    public static void main(String[] args) {
-        Portfolio portfolio = new Portfolio();
-
-        // Using Conservative Strategy
-        portfolio.setInvestmentStrategy(new ConservativeStrategy());
-        portfolio.invest(10000);
-
-        // Using Balanced Strategy
-        portfolio.setInvestmentStrategy(new BalancedStrategy());
-        portfolio.invest(10000);
-
-        // Using Aggressive Strategy
-        portfolio.setInvestmentStrategy(new AggressiveStrategy());
-        portfolio.invest(10000);
-    }
-}
+import java.util.concurrent.atomic.AtomicReference;
+
+// Step 1: Define the Strategy Interface
+interface InvestmentStrategy {
+    void invest(double amount);
+
+    // Target weight for each asset of the universe (weights sum to 1)
+    double[] allocate(AssetUniverse universe);
+}
+
+// Step 2: Implement Different Investment Strategies
+
+// Conservative Strategy
+class ConservativeStrategy implements InvestmentStrategy {
+    @Override
+    public void invest(double amount) {
+        System.out.println("Investing " + amount + " in conservative instruments like bonds and fixed deposits.");
+    }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.70, 0.25, 0.05);
+    }
+}
+
+// Balanced Strategy
+class BalancedStrategy implements InvestmentStrategy {
+    @Override
+    public void invest(double amount) {
+        System.out.println("Investing " + amount + " in a balanced mix of stocks and bonds.");
+    }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.35, 0.45, 0.20);
+    }
+}
+
+// Aggressive Strategy
+class AggressiveStrategy implements InvestmentStrategy {
+    @Override
+    public void invest(double amount) {
+        System.out.println("Investing " + amount + " in aggressive instruments like stocks and high-risk assets.");
+    }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.10, 0.30, 0.60);
+    }
+}
+
+// Step 3: Create a Context Class
+// The strategy is published through an AtomicReference together with a version number.
+// Each call reads the reference once, so in-flight calls finish on the strategy they
+// started with while new calls pick up a replacement.
+class Portfolio {
+    static final class VersionedStrategy {
+        final InvestmentStrategy strategy;
+        final long version;
+
+        VersionedStrategy(InvestmentStrategy strategy, long version) {
+            this.strategy = strategy;
+            this.version = version;
+        }
+    }
+
+    private final AtomicReference<VersionedStrategy> investmentStrategy =
+            new AtomicReference<>(new VersionedStrategy(null, 0));
+
+    // Set the strategy dynamically; returns the new version
+    public long setInvestmentStrategy(InvestmentStrategy investmentStrategy) {
+        if (investmentStrategy == null) {
+            throw new IllegalArgumentException("Investment strategy must not be null");
+        }
+        return this.investmentStrategy.updateAndGet(
+                current -> new VersionedStrategy(investmentStrategy, current.version + 1)).version;
+    }
+
+    // Share a strategy instance from a registry
+    public long useStrategy(StrategyRegistry registry, String name) {
+        return setInvestmentStrategy(registry.get(name));
+    }
+
+    public VersionedStrategy getInvestmentStrategy() {
+        return investmentStrategy.get();
+    }
+
+    // Invest with the current strategy; returns the version of the strategy the call ran on
+    public long invest(double amount) {
+        VersionedStrategy current = published();
+        current.strategy.invest(amount);
+        return current.version;
+    }
+
+    // Split an amount over the assets of the universe according to the current strategy
+    public double[] allocate(AssetUniverse universe, double amount) {
+        double[] amounts = current().allocate(universe);
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] *= amount;
+        }
+        return amounts;
+    }
+
+    // Compute the trades that bring the positions back to the current strategy's weights
+    public Rebalancer.Result rebalance(PositionBook positions, AssetUniverse universe, double[] trades) {
+        double[] weights = positions.targetWeights(current(), universe);
+        return new Rebalancer(Rebalancer.Kernel.LANES).rebalance(positions, weights, trades);
+    }
+
+    private InvestmentStrategy current() {
+        return published().strategy;
+    }
+
+    private VersionedStrategy published() {
+        VersionedStrategy current = investmentStrategy.get();
+        if (current.strategy == null) {
+            throw new IllegalStateException("Investment strategy not set");
+        }
+        return current;
+    }
+}
+
+// Step 4: Use the Strategy Pattern in the Main Class
+public class Main {
+    public static void main(String[] args) {
+        Portfolio portfolio = new Portfolio();
+
+        // Using Conservative Strategy
+        portfolio.setInvestmentStrategy(new ConservativeStrategy());
+        portfolio.invest(10000);
+
+        // Using Balanced Strategy
+        portfolio.setInvestmentStrategy(new BalancedStrategy());
+        portfolio.invest(10000);
+
+        // Using Aggressive Strategy
+        portfolio.setInvestmentStrategy(new AggressiveStrategy());
+        portfolio.invest(10000);
+
+        // Simulating one year of returns for each strategy
+        AssetUniverse universe = AssetUniverse.sample();
+        MonteCarloEngine engine = new MonteCarloEngine();
+        InvestmentStrategy[] strategies = { new ConservativeStrategy(), new BalancedStrategy(), new AggressiveStrategy() };
+        for (InvestmentStrategy strategy : strategies) {
+            MonteCarloEngine.Result result = engine.simulate(universe, strategy.allocate(universe), 1_000_000, 12, 1.0, 42);
+            System.out.printf("%s: expected return %.2f%%, 95%% VaR %.2f%%, 99%% VaR %.2f%% (%,d paths)%n",
+                    strategy.getClass().getSimpleName(), result.expectedReturn * 100,
+                    result.valueAtRisk95 * 100, result.valueAtRisk99 * 100, result.paths);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// AssetUniverse.java
+// The set of assets a strategy can allocate to, stored as parallel primitive arrays
+class AssetUniverse {
+    static final int LOW_RISK = 0;
+    static final int MEDIUM_RISK = 1;
+    static final int HIGH_RISK = 2;
+
+    final String[] names;
+    final double[] expectedReturns; // annual drift
+    final double[] volatilities;    // annual standard deviation
+    final int[] riskClasses;
+
+    AssetUniverse(String[] names, double[] expectedReturns, double[] volatilities, int[] riskClasses) {
+        if (expectedReturns.length != names.length || volatilities.length != names.length
+                || riskClasses.length != names.length) {
+            throw new IllegalArgumentException("Asset arrays must have the same length");
+        }
+        this.names = names;
+        this.expectedReturns = expectedReturns;
+        this.volatilities = volatilities;
+        this.riskClasses = riskClasses;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    // Spread each risk class's share equally over the assets in that class
+    double[] weightsByRiskClass(double low, double medium, double high) {
+        double[] shares = { low, medium, high };
+        int[] counts = new int[3];
+        for (int riskClass : riskClasses) {
+            counts[riskClass]++;
+        }
+        // Shares of classes with no assets are redistributed proportionally
+        double available = 0;
+        for (int c = 0; c < 3; c++) {
+            if (counts[c] > 0) available += shares[c];
+        }
+        double[] weights = new double[size()];
+        for (int i = 0; i < weights.length; i++) {
+            int c = riskClasses[i];
+            weights[i] = shares[c] / available / counts[c];
+        }
+        return weights;
+    }
+
+    // A small default universe of bonds, index funds and high-risk assets
+    static AssetUniverse sample() {
+        return new AssetUniverse(
+                new String[] { "Government Bonds", "Fixed Deposits", "Corporate Bonds", "Index Fund",
+                        "Blue Chip Stocks", "Small Cap Stocks", "Emerging Markets", "Crypto" },
+                new double[] { 0.03, 0.035, 0.045, 0.07, 0.08, 0.10, 0.11, 0.20 },
+                new double[] { 0.03, 0.01, 0.06, 0.15, 0.18, 0.25, 0.28, 0.70 },
+                new int[] { LOW_RISK, LOW_RISK, MEDIUM_RISK, MEDIUM_RISK, MEDIUM_RISK, HIGH_RISK, HIGH_RISK, HIGH_RISK });
+    }
+}
@@ -1,6 +1,9 @@
 // Step 1: Define the Strategy Interface
 interface InvestmentStrategy {
     void invest(double amount);
+
+    // Target weight for each asset of the universe (weights sum to 1)
+    double[] allocate(AssetUniverse universe);
 }
 
 // Step 2: Implement Different Investment Strategies
@@ -11,6 +14,11 @@ class ConservativeStrategy implements InvestmentStrategy {
     public void invest(double amount) {
         System.out.println("Investing " + amount + " in conservative instruments like bonds and fixed deposits.");
     }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.70, 0.25, 0.05);
+    }
 }
 
 // Balanced Strategy
@@ -19,6 +27,11 @@ class BalancedStrategy implements InvestmentStrategy {
     public void invest(double amount) {
         System.out.println("Investing " + amount + " in a balanced mix of stocks and bonds.");
     }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.35, 0.45, 0.20);
+    }
 }
 
 // Aggressive Strategy
@@ -27,6 +40,11 @@ class AggressiveStrategy implements InvestmentStrategy {
     public void invest(double amount) {
         System.out.println("Investing " + amount + " in aggressive instruments like stocks and high-risk assets.");
     }
+
+    @Override
+    public double[] allocate(AssetUniverse universe) {
+        return universe.weightsByRiskClass(0.10, 0.30, 0.60);
+    }
 }
 
 // Step 3: Create a Context Class
@@ -44,6 +62,18 @@ class Portfolio {
         }
         investmentStrategy.invest(amount);
     }
+
+    // Split an amount over the assets of the universe according to the current strategy
+    public double[] allocate(AssetUniverse universe, double amount) {
+        if (investmentStrategy == null) {
+            throw new IllegalStateException("Investment strategy not set");
+        }
+        double[] amounts = investmentStrategy.allocate(universe);
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] *= amount;
+        }
+        return amounts;
+    }
 }
 
 // Step 4: Use the Strategy Pattern in the Main Class
@@ -62,5 +92,16 @@ public class Main {
         // Using Aggressive Strategy
         portfolio.setInvestmentStrategy(new AggressiveStrategy());
         portfolio.invest(10000);
+
+        // Simulating one year of returns for each strategy
+        AssetUniverse universe = AssetUniverse.sample();
+        MonteCarloEngine engine = new MonteCarloEngine();
+        InvestmentStrategy[] strategies = { new ConservativeStrategy(), new BalancedStrategy(), new AggressiveStrategy() };
+        for (InvestmentStrategy strategy : strategies) {
+            MonteCarloEngine.Result result = engine.simulate(universe, strategy.allocate(universe), 1_000_000, 12, 1.0, 42);
+            System.out.printf("%s: expected return %.2f%%, 95%% VaR %.2f%%, 99%% VaR %.2f%% (%,d paths)%n",
+                    strategy.getClass().getSimpleName(), result.expectedReturn * 100,
+                    result.valueAtRisk95 * 100, result.valueAtRisk99 * 100, result.paths);
+        }
     }
 }